@@ -0,0 +1,201 @@
+package org.test.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.test.Chronometer;
+import org.test.TimeSample;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Cost of every time accessor of {@link Chronometer} for all implementations and modes. The chronometer is shared by
+ * all benchmark threads, so contended cost is measured with {@code -t} option.</p>
+ *
+ * <p>Allocation rate is reported with {@code -prof gc} option and latency distribution with {@code -bm sample}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("Europe/Moscow");
+
+    @Param
+    private ChronometerKind kind;
+
+    private Chronometer chronometer;
+
+    private long startTickNs;
+
+    private long endTickNs;
+
+    @Setup
+    public void setUp() {
+        chronometer = kind.create();
+        startTickNs = chronometer.getTickNs();
+        endTickNs = startTickNs + TimeUnit.MILLISECONDS.toNanos(15);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ChronometerKind.close(chronometer);
+    }
+
+    @Benchmark
+    public long getTickNs() {
+        return chronometer.getTickNs();
+    }
+
+    @Benchmark
+    public long getTimeMs() {
+        return chronometer.getTimeMs();
+    }
+
+    @Benchmark
+    public long getEpochMicros() {
+        return chronometer.getEpochMicros();
+    }
+
+    @Benchmark
+    public long getEpochNanos() {
+        return chronometer.getEpochNanos();
+    }
+
+    @Benchmark
+    public Instant getInstant() {
+        return chronometer.getInstant();
+    }
+
+    @Benchmark
+    public Date getDate() {
+        return chronometer.getDate();
+    }
+
+    @Benchmark
+    public Date fillDate(ValueHolder holder) {
+        return chronometer.fillDate(holder.date);
+    }
+
+    @Benchmark
+    public Calendar getCalendar() {
+        return chronometer.getCalendar();
+    }
+
+    @Benchmark
+    public Timestamp getTimestamp() {
+        return chronometer.getTimestamp();
+    }
+
+    @Benchmark
+    public Timestamp fillTimestamp(ValueHolder holder) {
+        return chronometer.fillTimestamp(holder.timestamp);
+    }
+
+    @Benchmark
+    public ZonedDateTime getZonedDateTime() {
+        return chronometer.getZonedDateTime(ZONE_ID);
+    }
+
+    @Benchmark
+    public OffsetDateTime getOffsetDateTime() {
+        return chronometer.getOffsetDateTime(ZONE_ID);
+    }
+
+    @Benchmark
+    public LocalDateTime getLocalDateTime() {
+        return chronometer.getLocalDateTime(ZONE_ID);
+    }
+
+    @Benchmark
+    public LocalDate getLocalDate() {
+        return chronometer.getLocalDate(ZONE_ID);
+    }
+
+    @Benchmark
+    public LocalTime getLocalTime() {
+        return chronometer.getLocalTime(ZONE_ID);
+    }
+
+    @Benchmark
+    public ZoneOffset getZoneOffset() {
+        return chronometer.getZoneOffset(ZONE_ID);
+    }
+
+    @Benchmark
+    public long getLocalEpochMs() {
+        return chronometer.getLocalEpochMs(ZONE_ID);
+    }
+
+    @Benchmark
+    public long getLocalEpochDay() {
+        return chronometer.getLocalEpochDay(ZONE_ID);
+    }
+
+    @Benchmark
+    public int fieldsHour() {
+        return chronometer.fields(ZONE_ID).hour();
+    }
+
+    @Benchmark
+    public long getElapsedNs() {
+        return chronometer.getElapsedNs(startTickNs);
+    }
+
+    @Benchmark
+    public long getElapsedBetween() {
+        return chronometer.getElapsed(startTickNs, endTickNs, TimeUnit.MICROSECONDS);
+    }
+
+    @Benchmark
+    public long getSample(SampleHolder holder) {
+        TimeSample sample = chronometer.getSample(holder.sample);
+        return sample.getTimeMs() + sample.getTickNs();
+    }
+
+    /**
+     * Reusable holder for each benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class SampleHolder {
+
+        private final TimeSample sample = new TimeSample();
+
+    }
+
+    /**
+     * Reusable date values for each benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class ValueHolder {
+
+        private final Date date = new Date();
+
+        private final Timestamp timestamp = new Timestamp(0);
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.test.benchmark;
+
+import org.test.AnchoredChronometer;
+import org.test.CachedChronometer;
+import org.test.Chronometer;
+import org.test.MockChronometer;
+import org.test.MonotonicChronometer;
+import org.test.SystemChronometer;
+
+/**
+ * Chronometer implementations and modes covered by benchmarks
+ */
+public enum ChronometerKind {
+
+    SYSTEM {
+        @Override
+        public Chronometer create() {
+            return SystemChronometer.INSTANCE;
+        }
+    },
+
+    MOCK_FROZEN {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createFrozen(MOMENT, 0);
+        }
+    },
+
+    MOCK_TICKING {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createTicking(MOMENT, 0);
+        }
+    },
+
+    MOCK_SYSTEM {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createSystem();
+        }
+    },
+
+    MOCK_BLOCKING {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createBlocking(MOMENT, 0);
+        }
+    },
+
+    MOCK_SIMULATED {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createSimulated(MOMENT, 0);
+        }
+    },
+
+    MOCK_SCALED {
+        @Override
+        public Chronometer create() {
+            return MockChronometer.createScaled(MOMENT, 0, 60);
+        }
+    },
+
+    CACHED {
+        @Override
+        public Chronometer create() {
+            return CachedChronometer.create();
+        }
+    },
+
+    ANCHORED {
+        @Override
+        public Chronometer create() {
+            return AnchoredChronometer.create();
+        }
+    },
+
+    MONOTONIC_GLOBAL {
+        @Override
+        public Chronometer create() {
+            return MonotonicChronometer.global(SystemChronometer.INSTANCE);
+        }
+    },
+
+    MONOTONIC_PER_THREAD {
+        @Override
+        public Chronometer create() {
+            return MonotonicChronometer.perThread(SystemChronometer.INSTANCE);
+        }
+    };
+
+    private static final String MOMENT = "2017-03-13 02:12:30.763 UTC";
+
+    /**
+     * Creates a new chronometer of this kind
+     *
+     * @return Chronometer
+     */
+    public abstract Chronometer create();
+
+    /**
+     * Releases resources of the chronometer
+     *
+     * @param chronometer Chronometer created by {@link ChronometerKind#create()}
+     */
+    public static void close(Chronometer chronometer) {
+        if (chronometer instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) chronometer).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to close chronometer", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.test.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.test.MockChronometer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link MockChronometer} time changes under concurrent writers, alone and mixed with readers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockChronometerShiftBenchmark {
+
+    @Param({"FROZEN", "TICKING", "SCALED"})
+    private MockChronometer.Mode mode;
+
+    private MockChronometer chronometer;
+
+    @Setup
+    public void setUp() {
+        chronometer = new MockChronometer(mode);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MockChronometer shiftBySingle() {
+        return chronometer.shiftBy(0, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MockChronometer shiftByContended() {
+        return chronometer.shiftBy(0, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MockChronometer correctTimeByContended() {
+        return chronometer.correctTimeBy(0, 1);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public MockChronometer mixedShiftBy() {
+        return chronometer.shiftBy(0, 1);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public long mixedGetTickNs() {
+        return chronometer.getTickNs();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public long mixedGetTimeMs() {
+        return chronometer.getTimeMs();
+    }
+
+}
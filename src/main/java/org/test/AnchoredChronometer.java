@@ -0,0 +1,271 @@
+package org.test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>High resolution <em>wall clock</em> derived from <em>tick</em> time. The wall clock of the source chronometer
+ * is read once as an anchor, and afterwards the wall time is calculated as the anchor plus elapsed ticks, so
+ * {@link AnchoredChronometer#getEpochMicros()} and {@link AnchoredChronometer#getEpochNanos()} cost one
+ * {@link System#nanoTime()} call and have sub-millisecond resolution.</p>
+ *
+ * <p>Once a period the anchor is checked against the source wall clock by the first reading thread. Small errors
+ * (tick frequency drift, NTP slewing) are corrected gradually by speeding up or slowing down the derived clock by at
+ * most the configured rate, so the derived time never goes back while <em>tick</em> time goes forward. Errors
+ * above the step threshold (manual time setting, NTP step) are applied at once.</p>
+ *
+ * <p>Works with {@link MockChronometer} as a source, so slewing could be verified with the mocked time.</p>
+ */
+public final class AnchoredChronometer implements Chronometer {
+
+    public static final long DEFAULT_PERIOD_NS = NS_IN_SEC;
+
+    public static final int DEFAULT_MAX_SLEW_PPM = 500;
+
+    public static final long DEFAULT_STEP_THRESHOLD_NS = 100 * NS_IN_MS;
+
+    private static final int ANCHOR_ATTEMPTS = 3;
+
+    private final Chronometer source;
+
+    private final long periodNs;
+
+    private final long slewDivisor;
+
+    private final long stepThresholdNs;
+
+    private final AtomicBoolean anchoring = new AtomicBoolean();
+
+    private volatile Anchor anchor;
+
+    private volatile long lastErrorNs;
+
+    private volatile long stepCount;
+
+    /**
+     * Constructs chronometer with default settings: checks the anchor once a second, slews by 500 ppm and steps on
+     * errors above 100 milliseconds
+     *
+     * @param source Source of tick and wall clock time
+     */
+    public AnchoredChronometer(Chronometer source) {
+        this(source, DEFAULT_PERIOD_NS, TimeUnit.NANOSECONDS, DEFAULT_MAX_SLEW_PPM,
+                DEFAULT_STEP_THRESHOLD_NS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs chronometer
+     *
+     * @param source Source of tick and wall clock time
+     * @param period Period of anchor checks
+     * @param periodUnit Time unit for period
+     * @param maxSlewPpm Maximal correction rate in parts per million of elapsed time
+     * @param stepThreshold Error that is applied at once instead of slewing
+     * @param stepThresholdUnit Time unit for step threshold
+     */
+    public AnchoredChronometer(Chronometer source, long period, TimeUnit periodUnit, int maxSlewPpm,
+                               long stepThreshold, TimeUnit stepThresholdUnit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        if (maxSlewPpm <= 0 || maxSlewPpm > 100_000) {
+            throw new IllegalArgumentException("Slew rate is out of range [1..100000] ppm: " + maxSlewPpm);
+        }
+
+        this.source = source;
+        this.periodNs = periodUnit.toNanos(period);
+        this.slewDivisor = 1_000_000 / maxSlewPpm;
+        this.stepThresholdNs = stepThresholdUnit.toNanos(stepThreshold);
+
+        long[] wall = readSource();
+        this.anchor = new Anchor(wall[1], wall[0], 0);
+    }
+
+    /**
+     * Creates chronometer anchored to {@link SystemChronometer} with default settings
+     *
+     * @return Anchored chronometer
+     */
+    public static AnchoredChronometer create() {
+        return new AnchoredChronometer(SystemChronometer.INSTANCE);
+    }
+
+    @Override
+    public long getTickNs() {
+        return source.getTickNs();
+    }
+
+    /**
+     * Returns derived <em>wall clock</em> time value
+     *
+     * @return Wall clock time in nanoseconds since <em>epoch</em>
+     */
+    @Override
+    public long getEpochNanos() {
+        long tickNs = source.getTickNs();
+        Anchor anchor = this.anchor;
+
+        if (tickNs - anchor.tickNs >= periodNs && anchoring.compareAndSet(false, true)) {
+            try {
+                anchor = reanchor(this.anchor);
+            } finally {
+                anchoring.set(false);
+            }
+        }
+
+        return anchor.epochNanos(tickNs, slewDivisor);
+    }
+
+    private Anchor reanchor(Anchor curAnchor) {
+        long[] wall = readSource();
+        long epochNs = wall[0];
+        long tickNs = wall[1];
+
+        long derivedNs = curAnchor.epochNanos(tickNs, slewDivisor);
+        long errorNs = epochNs - derivedNs;
+
+        Anchor newAnchor;
+        if (Math.abs(errorNs) > stepThresholdNs) {
+            newAnchor = new Anchor(tickNs, epochNs, 0);
+            stepCount++;
+        } else {
+            // continue from the current derived value and correct the error gradually
+            newAnchor = new Anchor(tickNs, derivedNs, errorNs);
+        }
+
+        lastErrorNs = errorNs;
+        anchor = newAnchor;
+        return newAnchor;
+    }
+
+    private long[] readSource() {
+        // take the wall clock reading with the narrowest tick window
+        long bestWindowNs = Long.MAX_VALUE;
+        long[] best = new long[2];
+
+        for (int i = 0; i < ANCHOR_ATTEMPTS; i++) {
+            long tickNs1 = source.getTickNs();
+            long epochNs = source.getEpochNanos();
+            long tickNs2 = source.getTickNs();
+
+            long windowNs = tickNs2 - tickNs1;
+            if (windowNs >= 0 && windowNs < bestWindowNs) {
+                bestWindowNs = windowNs;
+                best[0] = epochNs;
+                best[1] = tickNs1 + windowNs / 2;
+            }
+        }
+
+        if (bestWindowNs == Long.MAX_VALUE) {
+            best[0] = source.getEpochNanos();
+            best[1] = source.getTickNs();
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns derived <em>wall clock</em> time value
+     *
+     * @return Wall clock time in milliseconds since <em>epoch</em>
+     */
+    @Override
+    public long getTimeMs() {
+        return Math.floorDiv(getEpochNanos(), NS_IN_MS);
+    }
+
+    /**
+     * Returns derived <em>wall clock</em> time value
+     *
+     * @return Wall clock time as {@link Instant}
+     */
+    @Override
+    public Instant getInstant() {
+        long epochNs = getEpochNanos();
+        return Instant.ofEpochSecond(Math.floorDiv(epochNs, NS_IN_SEC), Math.floorMod(epochNs, NS_IN_SEC));
+    }
+
+    /**
+     * Reads derived <em>wall clock</em> and <em>tick</em> time values at the same moment
+     *
+     * @param sample Holder to fill
+     * @return The same holder
+     */
+    @Override
+    public TimeSample getSample(TimeSample sample) {
+        long tickNs = source.getTickNs();
+        return sample.set(Math.floorDiv(anchor.epochNanos(tickNs, slewDivisor), NS_IN_MS), tickNs);
+    }
+
+    @Override
+    public void sleep(long pauseMs) throws InterruptedException {
+        source.sleep(pauseMs);
+    }
+
+    @Override
+    public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
+        source.sleep(pause, pauseUnit);
+    }
+
+    /**
+     * Source of tick and wall clock time
+     *
+     * @return Source chronometer
+     */
+    public Chronometer getSource() {
+        return source;
+    }
+
+    /**
+     * Difference between the source wall clock and the derived one on the last anchor check
+     *
+     * @return Error in nanoseconds, positive if the derived clock is behind
+     */
+    public long getLastErrorNs() {
+        return lastErrorNs;
+    }
+
+    /**
+     * Number of errors that were applied at once instead of slewing
+     *
+     * @return Number of steps
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ANCHORED(%d ns error): %s / %d", lastErrorNs, getInstant(), getTickNs());
+    }
+
+    private static final class Anchor {
+
+        private final long tickNs;
+
+        private final long epochNs;
+
+        /**
+         * Error to be corrected gradually from the anchor on
+         */
+        private final long offsetNs;
+
+        private Anchor(long tickNs, long epochNs, long offsetNs) {
+            this.tickNs = tickNs;
+            this.epochNs = epochNs;
+            this.offsetNs = offsetNs;
+        }
+
+        private long epochNanos(long tickNs, long slewDivisor) {
+            long elapsedNs = Math.max(0, tickNs - this.tickNs);
+
+            long slewNs = elapsedNs / slewDivisor;
+            long correctionNs = offsetNs >= 0 ? Math.min(offsetNs, slewNs) : Math.max(offsetNs, -slewNs);
+
+            return epochNs + elapsedNs + correctionNs;
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Coarse chronometer that caches both <em>tick</em> and <em>wall clock</em> time values. Values are refreshed
+ * by a background daemon thread with the configured resolution, so reading the time is just a volatile field load
+ * without any system call or allocation.</p>
+ *
+ * <p>Returned values lag behind the real time by up to one resolution period plus the scheduling delay of the
+ * ticker thread. The actual lag could be checked with {@link CachedChronometer#getDriftNs()} and
+ * {@link CachedChronometer#getMaxDriftNs()}.</p>
+ *
+ * <p>Sleeping is delegated to {@link SystemChronometer} as the cached values are useless for short pauses.</p>
+ */
+public final class CachedChronometer implements Chronometer, AutoCloseable {
+
+    private final long resolutionNs;
+
+    private final Thread ticker;
+
+    private volatile State state;
+
+    private volatile long maxDriftNs;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs cached chronometer and starts the ticker thread
+     *
+     * @param resolution Refresh period of the cached values
+     * @param resolutionUnit Time unit for refresh period
+     */
+    public CachedChronometer(long resolution, TimeUnit resolutionUnit) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+
+        this.resolutionNs = resolutionUnit.toNanos(resolution);
+        this.state = State.now();
+        this.running = true;
+
+        this.ticker = new Thread(this::tick, "chronometer-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Creates cached chronometer with one millisecond resolution
+     *
+     * @return Cached chronometer
+     */
+    public static CachedChronometer create() {
+        return new CachedChronometer(1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates cached chronometer with specified resolution
+     *
+     * @param resolution Refresh period of the cached values
+     * @param resolutionUnit Time unit for refresh period
+     * @return Cached chronometer
+     */
+    public static CachedChronometer create(long resolution, TimeUnit resolutionUnit) {
+        return new CachedChronometer(resolution, resolutionUnit);
+    }
+
+    /**
+     * Returns cached <em>tick</em> time value
+     *
+     * @return Tick time in nanoseconds
+     */
+    @Override
+    public long getTickNs() {
+        return state.tickNs;
+    }
+
+    /**
+     * Returns cached <em>wall clock</em> time value
+     *
+     * @return Wall clock time in milliseconds since <em>epoch</em>
+     */
+    @Override
+    public long getTimeMs() {
+        return state.timeMs;
+    }
+
+    /**
+     * Returns cached <em>wall clock</em> time value. The same instance is returned until the next refresh.
+     *
+     * @return Wall clock time as {@link Instant}
+     */
+    @Override
+    public Instant getInstant() {
+        return state.instant;
+    }
+
+    /**
+     * Returns cached <em>wall clock</em> time value
+     *
+     * @return Wall clock time in nanoseconds since <em>epoch</em>
+     */
+    @Override
+    public long getEpochNanos() {
+        return state.epochNs;
+    }
+
+    /**
+     * Reads cached <em>wall clock</em> and <em>tick</em> time values from the same refresh
+     *
+     * @param sample Holder to fill
+     * @return The same holder
+     */
+    @Override
+    public TimeSample getSample(TimeSample sample) {
+        State state = this.state;
+        return sample.set(state.timeMs, state.tickNs);
+    }
+
+    @Override
+    public void sleep(long pauseMs) throws InterruptedException {
+        SystemChronometer.INSTANCE.sleep(pauseMs);
+    }
+
+    @Override
+    public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
+        SystemChronometer.INSTANCE.sleep(pause, pauseUnit);
+    }
+
+    /**
+     * Configured resolution of the cached values
+     *
+     * @param timeUnit Time unit for result
+     * @return Refresh period in selected time unit
+     */
+    public long getResolution(TimeUnit timeUnit) {
+        return timeUnit.convert(resolutionNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Current lag of the cached <em>tick</em> value behind the system tick source
+     *
+     * @return Lag in nanoseconds
+     */
+    public long getDriftNs() {
+        return SystemChronometer.INSTANCE.getElapsedNs(state.tickNs);
+    }
+
+    /**
+     * Maximal observed period between two consecutive refreshes. Shows the real resolution of the cached values
+     * that could be much worse than configured one on an overloaded host.
+     *
+     * @return Period in nanoseconds
+     */
+    public long getMaxDriftNs() {
+        return maxDriftNs;
+    }
+
+    /**
+     * Checks if the ticker thread is still refreshing the values
+     *
+     * @return True if chronometer is not closed
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the ticker thread. Cached values are frozen after that.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        while (running) {
+            LockSupport.parkNanos(this, resolutionNs);
+
+            State curState = this.state;
+            State newState = State.now();
+
+            long periodNs = newState.tickNs - curState.tickNs;
+            if (periodNs > maxDriftNs) {
+                // only the ticker thread writes this field
+                maxDriftNs = periodNs;
+            }
+
+            this.state = newState;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CACHED(%d ns): %s / %d", resolutionNs, getInstant(), getTickNs());
+    }
+
+    private static final class State {
+
+        private final long timeMs;
+
+        private final long epochNs;
+
+        private final long tickNs;
+
+        private final Instant instant;
+
+        private State(Instant instant, long tickNs) {
+            this.instant = instant;
+            this.timeMs = instant.toEpochMilli();
+            this.epochNs = instant.getEpochSecond() * NS_IN_SEC + instant.getNano();
+            this.tickNs = tickNs;
+        }
+
+        private static State now() {
+            Instant instant = SystemChronometer.INSTANCE.getInstant();
+            long tickNs = SystemChronometer.INSTANCE.getTickNs();
+
+            return new State(instant, tickNs);
+        }
+
+    }
+
+}
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
@@ -45,6 +46,16 @@ public interface Chronometer {
 
     long NS_IN_MCS = TimeUnit.MICROSECONDS.toNanos(1);
 
+    long NS_IN_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    long NS_IN_SEC = TimeUnit.SECONDS.toNanos(1);
+
+    long MS_IN_SEC = TimeUnit.SECONDS.toMillis(1);
+
+    long MS_IN_DAY = TimeUnit.DAYS.toMillis(1);
+
+    long NS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+
     /**
      * Returns current <em>tick</em> time in nanoseconds. Doesn't depend on what <em>wall</em> clock time is it now.
      * Doesn't depends on NTP shifts. Almost monotonic. Mostly used for timers and duration measurements.
@@ -70,6 +81,36 @@ public interface Chronometer {
      */
     long getTimeMs();
 
+    /**
+     * Returns <em>wall clock</em> time in microseconds since <em>epoch</em>
+     *
+     * @return Microseconds between the current time and <em>epoch</em> moment
+     */
+    default long getEpochMicros() {
+        return Math.floorDiv(getEpochNanos(), NS_IN_MCS);
+    }
+
+    /**
+     * Returns <em>wall clock</em> time in nanoseconds since <em>epoch</em>. The value fits into {@code long} type
+     * till the year 2262.
+     *
+     * @return Nanoseconds between the current time and <em>epoch</em> moment
+     */
+    default long getEpochNanos() {
+        Instant instant = getInstant();
+        return instant.getEpochSecond() * NS_IN_SEC + instant.getNano();
+    }
+
+    /**
+     * Reads both <em>wall clock</em> and <em>tick</em> times into the provided holder without allocation
+     *
+     * @param sample Holder to fill
+     * @return The same holder
+     */
+    default TimeSample getSample(TimeSample sample) {
+        return sample.set(getTimeMs(), getTickNs());
+    }
+
     /**
      * Current <em>wall clock</em> as {@link Date}
      *
@@ -79,10 +120,22 @@ public interface Chronometer {
         return new Date(getTimeMs());
     }
 
+    /**
+     * Updates the provided {@link Date} with current <em>wall clock</em> instead of allocating a new one
+     *
+     * @param date Date to update
+     * @return The same date
+     */
+    default Date fillDate(Date date) {
+        date.setTime(getTimeMs());
+        return date;
+    }
+
     /**
      * Current <em>wall clock</em> as {@link Calendar}
      *
      * @return Current time
+     * @see Chronometer#fields(ZoneId)
      */
     default Calendar getCalendar() {
         Calendar calendar = new GregorianCalendar();
@@ -95,6 +148,7 @@ public interface Chronometer {
      *
      * @param timezone Timezone for calendar
      * @return Current time
+     * @see Chronometer#fields(ZoneId)
      */
     default Calendar getCalendar(TimeZone timezone) {
         Calendar calendar = new GregorianCalendar(timezone);
@@ -108,6 +162,7 @@ public interface Chronometer {
      * @param timezone Timezone for calendar
      * @param locale Locale for calendar
      * @return Current time
+     * @see Chronometer#fields(ZoneId)
      */
     default Calendar getCalendar(TimeZone timezone, Locale locale) {
         Calendar calendar = new GregorianCalendar(timezone, locale);
@@ -115,6 +170,20 @@ public interface Chronometer {
         return calendar;
     }
 
+    /**
+     * Current <em>wall clock</em> as date and time fields in the timezone. Cheap replacement of
+     * {@link Chronometer#getCalendar(TimeZone)} when only fields are needed.
+     *
+     * <p>The returned view is owned by the current thread and is reused by the next call with the same timezone,
+     * so it must not be kept or passed to other threads.</p>
+     *
+     * @param zoneId Timezone for fields
+     * @return Current time
+     */
+    default TimeFields fields(ZoneId zoneId) {
+        return TimeFields.current(zoneId).update(getTimeMs());
+    }
+
     /**
      * Current <em>wall clock</em> as {@link Instant}
      *
@@ -131,6 +200,19 @@ public interface Chronometer {
         return Timestamp.from(getInstant());
     }
 
+    /**
+     * Updates the provided {@link Timestamp} with current <em>wall clock</em> instead of allocating a new one
+     *
+     * @param timestamp Timestamp to update
+     * @return The same timestamp
+     */
+    default Timestamp fillTimestamp(Timestamp timestamp) {
+        long epochNs = getEpochNanos();
+        timestamp.setTime(Math.floorDiv(epochNs, NS_IN_MS));
+        timestamp.setNanos((int) Math.floorMod(epochNs, NS_IN_SEC));
+        return timestamp;
+    }
+
     /**
      * Current <em>wall clock</em> as {@link ZonedDateTime}
      *
@@ -148,7 +230,8 @@ public interface Chronometer {
      * @return Current time
      */
     default OffsetDateTime getOffsetDateTime(ZoneId zoneId) {
-        return OffsetDateTime.ofInstant(getInstant(), zoneId);
+        Instant instant = getInstant();
+        return OffsetDateTime.ofInstant(instant, ZoneOffsetCache.getOffset(zoneId, instant.getEpochSecond()));
     }
 
     /**
@@ -158,7 +241,9 @@ public interface Chronometer {
      * @return Current time
      */
     default LocalDateTime getLocalDateTime(ZoneId zoneId) {
-        return LocalDateTime.ofInstant(getInstant(), zoneId);
+        Instant instant = getInstant();
+        ZoneOffset offset = ZoneOffsetCache.getOffset(zoneId, instant.getEpochSecond());
+        return LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), offset);
     }
 
     /**
@@ -168,7 +253,9 @@ public interface Chronometer {
      * @return Current time
      */
     default LocalTime getLocalTime(ZoneId zoneId) {
-        return getLocalDateTime(zoneId).toLocalTime();
+        long epochNs = getEpochNanos();
+        long offsetNs = ZoneOffsetCache.getOffsetSeconds(zoneId, Math.floorDiv(epochNs, NS_IN_MS)) * NS_IN_SEC;
+        return LocalTime.ofNanoOfDay(Math.floorMod(epochNs + offsetNs, NS_IN_DAY));
     }
 
     /**
@@ -178,7 +265,40 @@ public interface Chronometer {
      * @return Current time
      */
     default LocalDate getLocalDate(ZoneId zoneId) {
-        return getLocalDateTime(zoneId).toLocalDate();
+        return LocalDate.ofEpochDay(getLocalEpochDay(zoneId));
+    }
+
+    /**
+     * Current offset of the timezone. Offsets are cached until the next transition of zone rules.
+     *
+     * @param zoneId Timezone
+     * @return Offset from UTC
+     */
+    default ZoneOffset getZoneOffset(ZoneId zoneId) {
+        return ZoneOffsetCache.getOffset(zoneId, Math.floorDiv(getTimeMs(), MS_IN_SEC));
+    }
+
+    /**
+     * Returns <em>local</em> time in milliseconds since local <em>epoch</em> in the specified timezone
+     * (midnight, January 1, 1970 in the timezone). Local fields could be got with plain arithmetic from this value.
+     *
+     * @param zoneId Timezone
+     * @return Local milliseconds since local <em>epoch</em>
+     */
+    default long getLocalEpochMs(ZoneId zoneId) {
+        long timeMs = getTimeMs();
+        return timeMs + ZoneOffsetCache.getOffsetSeconds(zoneId, timeMs) * MS_IN_SEC;
+    }
+
+    /**
+     * Returns current <em>local</em> day in the specified timezone
+     *
+     * @param zoneId Timezone
+     * @return Days since local <em>epoch</em>
+     * @see LocalDate#toEpochDay()
+     */
+    default long getLocalEpochDay(ZoneId zoneId) {
+        return Math.floorDiv(getLocalEpochMs(zoneId), MS_IN_DAY);
     }
 
     /**
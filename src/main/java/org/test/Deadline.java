@@ -0,0 +1,367 @@
+package org.test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Moment in <em>tick</em> time when an operation must be finished. The deadline is computed once from the
+ * timeout, and every layer below asks for the remaining time instead of passing {@code (long, TimeUnit)} pairs
+ * and subtracting elapsed time on its own.</p>
+ *
+ * <p>The deadline is a single {@code long} tick value, so the static methods could be used with the primitive
+ * value without any allocation, and the {@link Deadline} object is just a convenient wrapper. Tick values are
+ * compared by difference like {@link Chronometer#getElapsed(long, long, TimeUnit)} does, with the same rules:
+ * the tick value going back within {@link Chronometer#ALLOWED_TICK_JITTER_NS} is tolerated, while a distance
+ * larger than the maximal budget is an overflow and the deadline is expired. Budgets are limited to
+ * {@link Deadline#MAX_BUDGET_NS} (about 146 years), which is used as an infinite timeout.</p>
+ *
+ * <p>The current deadline of a thread could be attached with {@link Deadline#attach()} and is carried to other
+ * threads by {@link Deadline#wrap(Runnable)} and {@link Deadline#propagating(Executor)}, so downstream work could
+ * check {@link Deadline#current()} and be shed once the request has timed out.</p>
+ */
+public final class Deadline implements Comparable<Deadline> {
+
+    public static final long MAX_BUDGET_NS = Long.MAX_VALUE / 2;
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final Chronometer chronometer;
+
+    private final long tickNs;
+
+    private Deadline(Chronometer chronometer, long tickNs) {
+        this.chronometer = chronometer;
+        this.tickNs = tickNs;
+    }
+
+    /**
+     * Creates deadline after the timeout from now
+     *
+     * @param chronometer Time source
+     * @param timeout Timeout, negative values are counted as zero
+     * @param timeoutUnit Time unit for timeout
+     * @return Deadline
+     */
+    public static Deadline after(Chronometer chronometer, long timeout, TimeUnit timeoutUnit) {
+        return new Deadline(chronometer, tickAfter(chronometer, timeout, timeoutUnit));
+    }
+
+    /**
+     * Creates deadline that practically never expires
+     *
+     * @param chronometer Time source
+     * @return Deadline
+     */
+    public static Deadline infinite(Chronometer chronometer) {
+        return new Deadline(chronometer, chronometer.getTickNs() + MAX_BUDGET_NS);
+    }
+
+    /**
+     * Wraps the primitive deadline
+     *
+     * @param chronometer Time source that has produced the deadline
+     * @param tickNs Deadline in <em>tick</em> time
+     * @return Deadline
+     */
+    public static Deadline of(Chronometer chronometer, long tickNs) {
+        return new Deadline(chronometer, tickNs);
+    }
+
+    /**
+     * Computes primitive deadline after the timeout from now
+     *
+     * @param chronometer Time source
+     * @param timeout Timeout, negative values are counted as zero
+     * @param timeoutUnit Time unit for timeout
+     * @return Deadline in <em>tick</em> time
+     */
+    public static long tickAfter(Chronometer chronometer, long timeout, TimeUnit timeoutUnit) {
+        long budgetNs = Math.min(Math.max(0, timeoutUnit.toNanos(timeout)), MAX_BUDGET_NS);
+        return chronometer.getTickNs() + budgetNs;
+    }
+
+    /**
+     * Calculates remaining time of the primitive deadline
+     *
+     * @param chronometer Time source that has produced the deadline
+     * @param tickNs Deadline in <em>tick</em> time
+     * @return Remaining time in nanoseconds, zero if the deadline is expired
+     */
+    public static long remainingNs(Chronometer chronometer, long tickNs) {
+        return remainingNs(tickNs, chronometer.getTickNs());
+    }
+
+    /**
+     * Calculates remaining time of the primitive deadline at the moment
+     *
+     * @param tickNs Deadline in <em>tick</em> time
+     * @param nowTickNs Current <em>tick</em> time
+     * @return Remaining time in nanoseconds, zero if the deadline is expired
+     */
+    public static long remainingNs(long tickNs, long nowTickNs) {
+        long remainingNs = tickNs - nowTickNs;
+
+        if (remainingNs <= 0) {
+            return 0;
+        } else if (remainingNs <= MAX_BUDGET_NS) {
+            return remainingNs;
+        } else if (remainingNs <= MAX_BUDGET_NS + Chronometer.ALLOWED_TICK_JITTER_NS) {
+            // the tick time has gone back a little since the infinite deadline has been created
+            return MAX_BUDGET_NS;
+        } else {
+            // large distance - overflow, the deadline has been passed long ago
+            return 0;
+        }
+    }
+
+    /**
+     * Checks if the primitive deadline is expired
+     *
+     * @param chronometer Time source that has produced the deadline
+     * @param tickNs Deadline in <em>tick</em> time
+     * @return True if there is no time left
+     */
+    public static boolean isExpired(Chronometer chronometer, long tickNs) {
+        return remainingNs(chronometer, tickNs) == 0;
+    }
+
+    /**
+     * Selects the earlier of two primitive deadlines
+     *
+     * @param tickNs1 The first deadline in <em>tick</em> time
+     * @param tickNs2 The second deadline in <em>tick</em> time
+     * @return Earlier deadline
+     */
+    public static long min(long tickNs1, long tickNs2) {
+        return tickNs1 - tickNs2 <= 0 ? tickNs1 : tickNs2;
+    }
+
+    /**
+     * Deadline in <em>tick</em> time
+     *
+     * @return Primitive deadline
+     */
+    public long getTickNs() {
+        return tickNs;
+    }
+
+    /**
+     * Time source of the deadline
+     *
+     * @return Chronometer
+     */
+    public Chronometer getChronometer() {
+        return chronometer;
+    }
+
+    /**
+     * Calculates remaining time
+     *
+     * @return Remaining time in nanoseconds, zero if the deadline is expired
+     */
+    public long remainingNs() {
+        return remainingNs(chronometer, tickNs);
+    }
+
+    /**
+     * Calculates remaining time in specified time unit, rounded down
+     *
+     * @param timeUnit Time unit for result
+     * @return Remaining time, zero if the deadline is expired
+     */
+    public long remaining(TimeUnit timeUnit) {
+        return timeUnit.convert(remainingNs(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Checks if the deadline is expired
+     *
+     * @return True if there is no time left
+     */
+    public boolean isExpired() {
+        return remainingNs() == 0;
+    }
+
+    /**
+     * Throws an exception if the deadline is expired, so the work could be shed before it's started
+     *
+     * @throws TimeoutException Thrown if there is no time left
+     */
+    public void check() throws TimeoutException {
+        if (isExpired()) {
+            throw new TimeoutException("Deadline has expired");
+        }
+    }
+
+    /**
+     * Selects the earlier of two deadlines
+     *
+     * @param other Another deadline of the same time source
+     * @return Earlier deadline
+     */
+    public Deadline min(Deadline other) {
+        return min(tickNs, other.tickNs) == tickNs ? this : other;
+    }
+
+    /**
+     * Creates a budget for a stage of the operation that ends after the timeout from now or at this deadline,
+     * whichever comes first
+     *
+     * @param budget Budget of the stage
+     * @param budgetUnit Time unit for budget
+     * @return Stage deadline
+     */
+    public Deadline subBudget(long budget, TimeUnit budgetUnit) {
+        long stageTickNs = min(tickNs, tickAfter(chronometer, budget, budgetUnit));
+        return stageTickNs == tickNs ? this : new Deadline(chronometer, stageTickNs);
+    }
+
+    /**
+     * Creates a budget for a stage of the operation that takes a share of the remaining time, so later stages
+     * still have time left
+     *
+     * @param share Share of the remaining time, from 0 to 1
+     * @return Stage deadline
+     */
+    public Deadline subBudget(double share) {
+        if (!(share >= 0 && share <= 1)) {
+            throw new IllegalArgumentException("Share is out of range [0..1]: " + share);
+        }
+
+        long nowTickNs = chronometer.getTickNs();
+        long budgetNs = (long) (remainingNs(tickNs, nowTickNs) * share);
+
+        return new Deadline(chronometer, nowTickNs + budgetNs);
+    }
+
+    /**
+     * Returns deadline attached to the current thread
+     *
+     * @return Deadline or null if there is no deadline
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Attaches the deadline to the current thread until the scope is closed
+     *
+     * @return Scope that restores the previous deadline of the thread on close
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Wraps the task to run it with the deadline of the current thread attached
+     *
+     * @param task Task
+     * @return Wrapped task, or the same task if there is no current deadline
+     */
+    public static Runnable wrap(Runnable task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+
+        return () -> {
+            Scope scope = deadline.attach();
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Wraps the task to run it with the deadline of the current thread attached
+     *
+     * @param task Task
+     * @param <V> Type of the result
+     * @return Wrapped task, or the same task if there is no current deadline
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+
+        return () -> {
+            Scope scope = deadline.attach();
+            try {
+                return task.call();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Wraps the executor to carry the deadline of the submitting thread to the thread that runs the task
+     *
+     * @param executor Executor
+     * @return Propagating executor
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    @Override
+    public int compareTo(Deadline other) {
+        return Long.signum(tickNs - other.tickNs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Deadline)) {
+            return false;
+        }
+
+        Deadline other = (Deadline) o;
+        return tickNs == other.tickNs && chronometer == other.chronometer;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(tickNs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Deadline(%d ns remaining)", remainingNs());
+    }
+
+    /**
+     * Attachment of a deadline to the current thread
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Restores the previous deadline of the thread
+         */
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+
+    }
+
+}
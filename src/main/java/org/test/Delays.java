@@ -0,0 +1,180 @@
+package org.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Non-blocking delays and timeouts for {@link CompletableFuture} measured with a {@link Chronometer}: Java 8
+ * equivalents of {@code orTimeout}, {@code completeOnTimeout} and {@code delayedExecutor}. A pending delay is just
+ * a timeout in a {@link TimingWheel}, so tens of thousands of concurrent waits don't hold any threads.</p>
+ *
+ * <p>{@link Delays#system()} is shared by the whole process and is served by the single worker thread of its
+ * wheel. With {@link MockChronometer} in frozen, blocking or simulated mode the wheel is advanced by the thread
+ * that changes the mocked time, so the futures are completed synchronously by {@code shiftBy} once the virtual time
+ * passes their deadlines. In ticking and scaled modes the mocked time flows by itself and the wheel has its own
+ * worker thread.</p>
+ *
+ * <p>Futures are completed by the thread that advances the wheel, so their dependent stages run in that thread as
+ * well. Use asynchronous stages or {@link Delays#delayedExecutor(long, TimeUnit, Executor)} for long work.</p>
+ */
+public final class Delays implements AutoCloseable {
+
+    public static final long DEFAULT_TICK_NS = Chronometer.NS_IN_MS;
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final TimingWheel timingWheel;
+
+    private final boolean shared;
+
+    private Delays(TimingWheel timingWheel, boolean shared) {
+        this.timingWheel = timingWheel;
+        this.shared = shared;
+    }
+
+    /**
+     * Constructs delays over a new wheel with one millisecond tick
+     *
+     * @param chronometer Time source
+     * @see TimingWheel#create(Chronometer, long, TimeUnit, int)
+     */
+    public Delays(Chronometer chronometer) {
+        this(TimingWheel.create(chronometer, DEFAULT_TICK_NS, TimeUnit.NANOSECONDS, DEFAULT_WHEEL_SIZE), false);
+    }
+
+    /**
+     * Returns delays of {@link SystemChronometer} shared by the process
+     *
+     * @return Shared delays
+     */
+    public static Delays system() {
+        return SystemHolder.INSTANCE;
+    }
+
+    /**
+     * Creates future that is completed after the delay
+     *
+     * @param delay Delay
+     * @param delayUnit Time unit for delay
+     * @return Future
+     */
+    public CompletableFuture<Void> delay(long delay, TimeUnit delayUnit) {
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(future, () -> future.complete(null), delay, delayUnit);
+        return future;
+    }
+
+    /**
+     * Completes the future with {@link TimeoutException} if it's not completed within the timeout. A timeout that
+     * isn't positive completes the future immediately.
+     *
+     * @param future Future
+     * @param timeout Timeout
+     * @param timeoutUnit Time unit for timeout
+     * @param <T> Type of the result
+     * @return The same future
+     */
+    public <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit timeoutUnit) {
+        if (!future.isDone()) {
+            schedule(future, () -> future.completeExceptionally(new TimeoutException()), timeout, timeoutUnit);
+        }
+        return future;
+    }
+
+    /**
+     * Completes the future with the value if it's not completed within the timeout. A timeout that isn't positive
+     * completes the future immediately.
+     *
+     * @param future Future
+     * @param value Value to complete with on timeout
+     * @param timeout Timeout
+     * @param timeoutUnit Time unit for timeout
+     * @param <T> Type of the result
+     * @return The same future
+     */
+    public <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T value,
+                                                      long timeout, TimeUnit timeoutUnit) {
+        if (!future.isDone()) {
+            schedule(future, () -> future.complete(value), timeout, timeoutUnit);
+        }
+        return future;
+    }
+
+    /**
+     * Creates executor that submits tasks to another executor after the delay. With a delay that isn't positive
+     * tasks are submitted immediately.
+     *
+     * @param delay Delay
+     * @param delayUnit Time unit for delay
+     * @param executor Executor that runs the tasks
+     * @return Delayed executor
+     */
+    public Executor delayedExecutor(long delay, TimeUnit delayUnit, Executor executor) {
+        long delayNs = clamp(delay, delayUnit);
+        if (delayNs == 0) {
+            return executor;
+        }
+
+        return task -> timingWheel.schedule(() -> executor.execute(task), delayNs, TimeUnit.NANOSECONDS);
+    }
+
+    private void schedule(CompletableFuture<?> future, Runnable task, long delay, TimeUnit delayUnit) {
+        long delayNs = clamp(delay, delayUnit);
+        if (delayNs == 0) {
+            // the timeout has already passed, the same as in delay()
+            task.run();
+            return;
+        }
+
+        TimingWheel.Timeout timeout = timingWheel.schedule(task, delayNs, TimeUnit.NANOSECONDS);
+
+        // release the wheel bucket as soon as the future is completed in another way
+        future.whenComplete((result, e) -> timeout.cancel());
+    }
+
+    private static long clamp(long delay, TimeUnit delayUnit) {
+        return Math.min(Math.max(0, delayUnit.toNanos(delay)), Deadline.MAX_BUDGET_NS);
+    }
+
+    /**
+     * Wheel that serves the delays
+     *
+     * @return Timing wheel
+     */
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    /**
+     * Stops the wheel. Pending futures are not completed after that.
+     *
+     * @throws IllegalStateException Thrown for the shared instance
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            throw new IllegalStateException("Shared delays can't be closed");
+        }
+
+        timingWheel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Delays(%s)", timingWheel);
+    }
+
+    private static final class SystemHolder {
+
+        private static final Delays INSTANCE = new Delays(TimingWheel.create(SystemChronometer.INSTANCE,
+                DEFAULT_TICK_NS, TimeUnit.NANOSECONDS, DEFAULT_WHEEL_SIZE), true);
+
+    }
+
+}
@@ -0,0 +1,424 @@
+package org.test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <p>Concurrent map with entries that expire a fixed time after they have been written or last read. Expiry is
+ * measured with {@link Chronometer#getTickNs()}, so with {@link MockChronometer} entries expire deterministically
+ * once the time is shifted, without any sleeping in tests.</p>
+ *
+ * <p>A read checks the expiry of the entry itself and costs a map lookup and a tick read, without allocation.
+ * Expired entries are removed in bulk: each entry is queued into a time bucket of its expiry, and once the time
+ * passes a bucket the first writing (or reading) thread drains it. Entries which expiry has been extended by reads
+ * are moved to later buckets on the way, so nothing is ever scanned.</p>
+ *
+ * <p>The size could be bounded. Over the limit the least recently read entry of a small sample is evicted, the
+ * same approximation of LRU as in Redis, so eviction costs a few steps regardless of the size. The size may exceed
+ * the limit for a moment when writers race.</p>
+ *
+ * @param <K> Type of keys
+ * @param <V> Type of values
+ */
+public final class ExpiringCache<K, V> {
+
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    // expiry times of all live entries fit into half of the ring
+    private static final int BUCKETS = 64;
+
+    private static final int SAMPLE_SIZE = 8;
+
+    private final Chronometer chronometer;
+
+    private final Expiry expiry;
+
+    private final long ttlNs;
+
+    private final int maxSize;
+
+    private final long originNs;
+
+    private final long bucketNs;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Entry<K, V>>[] buckets;
+
+    private final AtomicBoolean cleaning = new AtomicBoolean();
+
+    private final List<Entry<K, V>> drained = new ArrayList<>();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long processedSlot;
+
+    private Iterator<Entry<K, V>> sampler;
+
+    /**
+     * Constructs cache
+     *
+     * @param chronometer Time source
+     * @param expiry Event that starts the lifetime of an entry
+     * @param ttl Lifetime of an entry
+     * @param ttlUnit Time unit for lifetime
+     * @param maxSize Maximal number of entries or {@link ExpiringCache#UNBOUNDED}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ExpiringCache(Chronometer chronometer, Expiry expiry, long ttl, TimeUnit ttlUnit, int maxSize) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("Lifetime must be positive: " + ttl);
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximal size must be positive: " + maxSize);
+        }
+
+        this.chronometer = chronometer;
+        this.expiry = expiry;
+        this.ttlNs = Math.min(ttlUnit.toNanos(ttl), Deadline.MAX_BUDGET_NS);
+        this.maxSize = maxSize;
+        this.originNs = chronometer.getTickNs();
+        this.bucketNs = Math.max(1, ttlNs / (BUCKETS / 2));
+        this.processedSlot = -1;
+
+        this.buckets = new ConcurrentLinkedQueue[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Creates unbounded cache with entries that expire after they have been written
+     *
+     * @param chronometer Time source
+     * @param ttl Lifetime of an entry
+     * @param ttlUnit Time unit for lifetime
+     * @param <K> Type of keys
+     * @param <V> Type of values
+     * @return Cache
+     */
+    public static <K, V> ExpiringCache<K, V> expireAfterWrite(Chronometer chronometer, long ttl, TimeUnit ttlUnit) {
+        return new ExpiringCache<>(chronometer, Expiry.AFTER_WRITE, ttl, ttlUnit, UNBOUNDED);
+    }
+
+    /**
+     * Creates unbounded cache with entries that expire after they have been read or written for the last time
+     *
+     * @param chronometer Time source
+     * @param ttl Lifetime of an entry
+     * @param ttlUnit Time unit for lifetime
+     * @param <K> Type of keys
+     * @param <V> Type of values
+     * @return Cache
+     */
+    public static <K, V> ExpiringCache<K, V> expireAfterAccess(Chronometer chronometer, long ttl, TimeUnit ttlUnit) {
+        return new ExpiringCache<>(chronometer, Expiry.AFTER_ACCESS, ttl, ttlUnit, UNBOUNDED);
+    }
+
+    /**
+     * Returns the value if it hasn't expired yet
+     *
+     * @param key Key
+     * @return Value or null
+     */
+    public V get(K key) {
+        long nowNs = chronometer.getTickNs();
+        Entry<K, V> entry = entries.get(key);
+
+        V value = null;
+        if (entry != null) {
+            if (isExpired(entry, nowNs)) {
+                if (entries.remove(key, entry)) {
+                    expirations.increment();
+                }
+            } else {
+                touch(entry, nowNs);
+                value = entry.value;
+            }
+        }
+
+        if (slotOf(nowNs) - processedSlot > 1) {
+            cleanUp(nowNs);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value, loading it if it's missing or expired
+     *
+     * @param key Key
+     * @param loader Function that computes the value, null result is not stored
+     * @return Value or null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        long nowNs = chronometer.getTickNs();
+        boolean[] loaded = new boolean[1];
+
+        Entry<K, V> entry = entries.compute(key, (k, e) -> {
+            if (e != null && !isExpired(e, nowNs)) {
+                return e;
+            }
+
+            V v = loader.apply(k);
+            loaded[0] = v != null;
+            return v != null ? new Entry<>(k, v, nowNs) : null;
+        });
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (loaded[0]) {
+            written(entry, nowNs);
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores the value with the new lifetime
+     *
+     * @param key Key
+     * @param value Value
+     * @return Previous value that hasn't expired or null
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Value is null");
+        }
+
+        long nowNs = chronometer.getTickNs();
+        Entry<K, V> entry = new Entry<>(key, value, nowNs);
+        Entry<K, V> previous = entries.put(key, entry);
+
+        written(entry, nowNs);
+        return previous != null && !isExpired(previous, nowNs) ? previous.value : null;
+    }
+
+    /**
+     * Removes the value. The entry stays queued in its time bucket till the bucket is drained, so the value could
+     * be referenced up to the lifetime after the removal.
+     *
+     * @param key Key
+     * @return Removed value that hasn't expired or null
+     */
+    public V remove(K key) {
+        Entry<K, V> previous = entries.remove(key);
+        return previous != null && !isExpired(previous, chronometer.getTickNs()) ? previous.value : null;
+    }
+
+    /**
+     * Removes all values and releases them at once
+     */
+    public void clear() {
+        // buckets first, so an entry written concurrently stays in its bucket if it stays in the map
+        for (ConcurrentLinkedQueue<Entry<K, V>> bucket : buckets) {
+            bucket.clear();
+        }
+
+        entries.clear();
+    }
+
+    /**
+     * Number of entries including expired ones that haven't been removed yet
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void written(Entry<K, V> entry, long nowNs) {
+        schedule(entry);
+
+        if (slotOf(nowNs) - processedSlot > 1 || entries.size() > maxSize) {
+            cleanUp(nowNs);
+        }
+    }
+
+    private void schedule(Entry<K, V> entry) {
+        buckets[(int) (slotOf(expiryOf(entry)) & (BUCKETS - 1))].add(entry);
+    }
+
+    private boolean isExpired(Entry<K, V> entry, long nowNs) {
+        return nowNs - expiryOf(entry) >= 0;
+    }
+
+    private long expiryOf(Entry<K, V> entry) {
+        return (expiry == Expiry.AFTER_WRITE ? entry.writeNs : entry.accessNs) + ttlNs;
+    }
+
+    private static <K, V> void touch(Entry<K, V> entry, long nowNs) {
+        // don't dirty the cache line if the tick hasn't changed
+        if (entry.accessNs != nowNs) {
+            entry.accessNs = nowNs;
+        }
+    }
+
+    private long slotOf(long tickNs) {
+        return Math.floorDiv(tickNs - originNs, bucketNs);
+    }
+
+    /**
+     * Removes expired entries and evicts entries over the size limit. It's called by reads and writes
+     * automatically, so an explicit call is only needed to release memory of a cache that is not used anymore.
+     */
+    public void cleanUp() {
+        cleanUp(chronometer.getTickNs());
+    }
+
+    private void cleanUp(long nowNs) {
+        if (!cleaning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            expire(nowNs);
+            evict(nowNs);
+        } finally {
+            cleaning.set(false);
+        }
+    }
+
+    private void expire(long nowNs) {
+        // buckets before the current one contain only expired entries and entries which expiry has been extended
+        long currentSlot = slotOf(nowNs);
+        long fromSlot = Math.max(processedSlot + 1, currentSlot - BUCKETS);
+
+        for (long slot = fromSlot; slot < currentSlot; slot++) {
+            ConcurrentLinkedQueue<Entry<K, V>> bucket = buckets[(int) (slot & (BUCKETS - 1))];
+
+            Entry<K, V> entry;
+            while ((entry = bucket.poll()) != null) {
+                drained.add(entry);
+            }
+
+            for (Entry<K, V> e : drained) {
+                if (entries.get(e.key) != e) {
+                    // replaced or removed
+                    continue;
+                }
+
+                if (isExpired(e, nowNs)) {
+                    if (entries.remove(e.key, e)) {
+                        expirations.increment();
+                    }
+                } else {
+                    schedule(e);
+                }
+            }
+            drained.clear();
+        }
+
+        if (currentSlot - 1 > processedSlot) {
+            processedSlot = currentSlot - 1;
+        }
+    }
+
+    private void evict(long nowNs) {
+        while (entries.size() > maxSize) {
+            Entry<K, V> victim = null;
+
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                if (sampler == null || !sampler.hasNext()) {
+                    sampler = entries.values().iterator();
+                    if (!sampler.hasNext()) {
+                        return;
+                    }
+                }
+
+                Entry<K, V> entry = sampler.next();
+                if (isExpired(entry, nowNs)) {
+                    victim = entry;
+                    break;
+                }
+                if (victim == null || entry.accessNs - victim.accessNs < 0) {
+                    victim = entry;
+                }
+            }
+
+            if (entries.remove(victim.key, victim)) {
+                if (isExpired(victim, nowNs)) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of entries removed because their lifetime has ended
+     *
+     * @return Number of expired entries
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Number of entries removed because of the size limit
+     *
+     * @return Number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExpiringCache(%s %d ns, %d entries, %d expired, %d evicted)",
+                expiry, ttlNs, size(), getExpirationCount(), getEvictionCount());
+    }
+
+    /**
+     * Event that starts the lifetime of an entry
+     */
+    public enum Expiry {
+
+        /**
+         * Entry expires after it has been written
+         */
+        AFTER_WRITE,
+
+        /**
+         * Entry expires after it has been read or written for the last time
+         */
+        AFTER_ACCESS
+
+    }
+
+    private static final class Entry<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final long writeNs;
+
+        private volatile long accessNs;
+
+        private Entry(K key, V value, long writeNs) {
+            this.key = key;
+            this.value = value;
+            this.writeNs = writeNs;
+            this.accessNs = writeNs;
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+package org.test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Concurrent histogram of latencies with log-linear buckets like HdrHistogram has. Each power of two range of
+ * values is split into the same number of linear sub-buckets, so the relative error of any value is bounded by
+ * {@code 2^-(precisionBits - 1)}, about 1.6% with the default 7 bits.</p>
+ *
+ * <p>Memory is allocated once in the constructor. Counters are striped by threads, so recording is an atomic increment
+ * of the bucket counter and an atomic addition to the sum of the stripe, plus a CAS of the maximum that is repeated
+ * only while the value is above the maximum and other threads of the same stripe race for it. There are no locks
+ * and allocations. Values above the highest trackable value, including {@link Long#MAX_VALUE} returned by
+ * {@link Chronometer#getElapsedNs(long)} on overflow, are recorded as the highest trackable value, so they are
+ * counted in the last bucket and can't overflow the sum.</p>
+ *
+ * <p>Use {@link LatencyHistogram#snapshotAndReset()} for periodic interval reporting.</p>
+ */
+public final class LatencyHistogram {
+
+    public static final long DEFAULT_HIGHEST_TRACKABLE_NS = TimeUnit.HOURS.toNanos(1);
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private static final int SUM = 0;
+
+    private static final int MAX = 1;
+
+    // keep sum and max of different stripes on different cache lines
+    private static final int TOTALS_STRIDE = 16;
+
+    private final int precisionBits;
+
+    private final int halfSubBucketCount;
+
+    private final long highestTrackableNs;
+
+    private final int bucketCount;
+
+    private final AtomicLongArray[] stripes;
+
+    private final AtomicLongArray totals;
+
+    private final int stripeMask;
+
+    /**
+     * Constructs histogram for latencies up to one hour with relative error below 2%
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_NS, DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Constructs histogram
+     *
+     * @param highestTrackableNs Highest value that is tracked precisely
+     * @param precisionBits Number of bits for linear sub-buckets, relative error is {@code 2^-(precisionBits - 1)}
+     */
+    public LatencyHistogram(long highestTrackableNs, int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits are out of range [1..16]: " + precisionBits);
+        }
+        if (highestTrackableNs < 1) {
+            throw new IllegalArgumentException("Highest trackable value must be positive: " + highestTrackableNs);
+        }
+
+        this.precisionBits = precisionBits;
+        this.halfSubBucketCount = 1 << (precisionBits - 1);
+        this.highestTrackableNs = highestTrackableNs;
+        this.bucketCount = indexOf(highestTrackableNs) + 1;
+
+        this.stripes = new AtomicLongArray[Striping.stripeCount()];
+        this.stripeMask = stripes.length - 1;
+        this.totals = new AtomicLongArray(stripes.length * TOTALS_STRIDE);
+
+        for (int i = 0; i < stripes.length; i++) {
+            this.stripes[i] = new AtomicLongArray(bucketCount);
+        }
+    }
+
+    /**
+     * Records the latency
+     *
+     * @param elapsedNs Latency in nanoseconds, negative values are counted as zero and values above the highest
+     *                  trackable value are counted as the highest one
+     */
+    public void record(long elapsedNs) {
+        long valueNs = Math.min(Math.max(0, elapsedNs), highestTrackableNs);
+        int stripe = Striping.probe() & stripeMask;
+
+        stripes[stripe].incrementAndGet(indexOf(valueNs));
+
+        int offset = stripe * TOTALS_STRIDE;
+        totals.addAndGet(offset + SUM, valueNs);
+
+        long maxNs = totals.get(offset + MAX);
+        while (valueNs > maxNs && !totals.compareAndSet(offset + MAX, maxNs, valueNs)) {
+            maxNs = totals.get(offset + MAX);
+        }
+    }
+
+    /**
+     * Records the time elapsed since the start of an operation
+     *
+     * @param chronometer Time source
+     * @param startTickNs Value returned by {@link Chronometer#getTickNs()} at the start of the operation
+     * @see Chronometer#getElapsedNs(long)
+     */
+    public void recordSince(Chronometer chronometer, long startTickNs) {
+        record(chronometer.getElapsedNs(startTickNs));
+    }
+
+    /**
+     * Aggregates counters of all stripes
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * Aggregates counters of all stripes and resets them, so the next snapshot covers only the next interval
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    private Snapshot collect(boolean reset) {
+        long[] counts = new long[bucketCount];
+        long sumNs = 0;
+        long maxNs = 0;
+
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            AtomicLongArray cells = stripes[stripe];
+            for (int i = 0; i < bucketCount; i++) {
+                counts[i] += reset ? cells.getAndSet(i, 0) : cells.get(i);
+            }
+
+            int offset = stripe * TOTALS_STRIDE;
+            sumNs += reset ? totals.getAndSet(offset + SUM, 0) : totals.get(offset + SUM);
+            maxNs = Math.max(maxNs, reset ? totals.getAndSet(offset + MAX, 0) : totals.get(offset + MAX));
+        }
+
+        return new Snapshot(this, counts, sumNs, maxNs);
+    }
+
+    private int indexOf(long valueNs) {
+        int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(valueNs)) - (precisionBits - 1));
+        return shift * halfSubBucketCount + (int) (valueNs >>> shift);
+    }
+
+    private long lowestValueOf(int index) {
+        int shift = Math.max(0, index / halfSubBucketCount - 1);
+        return (long) (index - shift * halfSubBucketCount) << shift;
+    }
+
+    private long highestValueOf(int index) {
+        int shift = Math.max(0, index / halfSubBucketCount - 1);
+        return ((long) (index - shift * halfSubBucketCount + 1) << shift) - 1;
+    }
+
+    /**
+     * Highest value that is tracked precisely
+     *
+     * @return Value in nanoseconds
+     */
+    public long getHighestTrackableNs() {
+        return highestTrackableNs;
+    }
+
+    /**
+     * Number of bits for linear sub-buckets
+     *
+     * @return Precision bits
+     */
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Immutable aggregated state of the histogram
+     */
+    public static final class Snapshot {
+
+        private final LatencyHistogram histogram;
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sumNs;
+
+        private final long maxNs;
+
+        private Snapshot(LatencyHistogram histogram, long[] counts, long sumNs, long maxNs) {
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+
+            this.histogram = histogram;
+            this.counts = counts;
+            this.count = count;
+            this.sumNs = sumNs;
+            this.maxNs = maxNs;
+        }
+
+        /**
+         * Number of recorded values
+         *
+         * @return Number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Exact maximal recorded value, limited by the highest trackable value
+         *
+         * @return Value in nanoseconds
+         */
+        public long getMaxNs() {
+            return maxNs;
+        }
+
+        /**
+         * Exact mean of recorded values, each limited by the highest trackable value
+         *
+         * @return Value in nanoseconds
+         */
+        public double getMeanNs() {
+            return count > 0 ? (double) sumNs / count : 0;
+        }
+
+        /**
+         * Lowest recorded value within histogram precision
+         *
+         * @return Value in nanoseconds
+         */
+        public long getMinNs() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return histogram.lowestValueOf(i);
+                }
+            }
+
+            return 0;
+        }
+
+        /**
+         * Value below or equal to which the given percentage of recorded values falls, within histogram precision
+         *
+         * @param percentile Percentile from 0 to 100
+         * @return Value in nanoseconds
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            double p = Math.max(0, Math.min(percentile, 100));
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * count));
+
+            long accumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= rank) {
+                    return Math.min(histogram.highestValueOf(i), maxNs);
+                }
+            }
+
+            return maxNs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count: %d, mean: %.0f ns, p50: %d ns, p99: %d ns, p99.9: %d ns, max: %d ns",
+                    count, getMeanNs(), getValueAtPercentile(50), getValueAtPercentile(99),
+                    getValueAtPercentile(99.9), maxNs);
+        }
+
+    }
+
+}
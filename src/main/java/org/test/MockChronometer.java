@@ -10,39 +10,80 @@ import java.time.format.DecimalStyle;
 import java.time.format.ResolverStyle;
 import java.time.temporal.ChronoField;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Mock chronometer for test purposes. Allows to control both `tick` and `clock` sources.
+ * <p>Mock chronometer for test purposes. Allows to control both `tick` and `clock` sources.</p>
+ *
+ * <p>The state is kept in versioned primitive fields like a sequence lock: a writer makes the version odd with CAS
+ * before the change and even again after it, readers retry only if the version has been changed while they were
+ * reading. So reading doesn't block and changing the time doesn't allocate. The mode is a part of the same versioned
+ * state.</p>
  */
 public final class MockChronometer implements Chronometer {
 
-    private static final long NS_IN_MS = TimeUnit.MILLISECONDS.toNanos(1);
-
-    private static final long MS_IN_SEC = TimeUnit.SECONDS.toMillis(1);
-
     private static final String TIMESTAMP_FORMAT = "uuuu-MM-dd HH:mm:ss.SSS z";
 
-    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern(TIMESTAMP_FORMAT)
+    static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern(TIMESTAMP_FORMAT)
             .withLocale(Locale.US)
             .withChronology(IsoChronology.INSTANCE)
             .withDecimalStyle(DecimalStyle.STANDARD)
             .withResolverStyle(ResolverStyle.STRICT);
 
-    private final AtomicReference<State> stateRef;
+    private final List<Listener> listeners;
+
+    private final PriorityQueue<Sleeper> sleepers;
+
+    private final Lock sleepLock;
+
+    private final Set<Thread> participants;
+
+    private long sleeperSequence;
+
+    private int sleepingParticipants;
+
+    // versions the state below, also serves as the lock for writers
+    private final SequenceLock stateLock;
 
     private volatile Mode mode;
 
+    private volatile long timeMs;
+
+    // nanosecond part of the wall clock time in range [0, NS_IN_MS)
+    private volatile long timeNs;
+
+    private volatile long tickNs;
+
+    // system tick of the last change, used in ticking and scaled modes
+    private volatile long createdNs;
+
+    // time flow rate in scaled mode
+    private volatile double rate;
+
     /**
      * Constructs mock chronometer with current wall clock time state
      *
      * @param mode Chronometer mode
      */
     public MockChronometer(Mode mode) {
-        this.stateRef = new AtomicReference<>(State.now());
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.sleepers = new PriorityQueue<>();
+        this.sleepLock = new ReentrantLock();
+        this.participants = new HashSet<>();
+        this.stateLock = new SequenceLock();
         this.mode = mode;
+        this.rate = 1;
+
+        writeNow();
     }
 
     /**
@@ -116,6 +157,59 @@ public final class MockChronometer implements Chronometer {
         return new MockChronometer(Mode.FROZEN).reset(moment, tickNs);
     }
 
+    /**
+     * Creates mock chronometer instance in <em>blocking</em> mode
+     *
+     * @return Mock chronometer
+     */
+    public static MockChronometer createBlocking() {
+        return new MockChronometer(Mode.BLOCKING);
+    }
+
+    /**
+     * Creates mock chronometer instance in <em>blocking</em> mode
+     *
+     * @param moment Time
+     * @param tickNs Ticks
+     * @return Mock chronometer
+     */
+    public static MockChronometer createBlocking(String moment, long tickNs) {
+        return new MockChronometer(Mode.BLOCKING).reset(moment, tickNs);
+    }
+
+    /**
+     * Creates mock chronometer instance in <em>simulated</em> mode
+     *
+     * @param moment Time
+     * @param tickNs Ticks
+     * @return Mock chronometer
+     */
+    public static MockChronometer createSimulated(String moment, long tickNs) {
+        return new MockChronometer(Mode.SIMULATED).reset(moment, tickNs);
+    }
+
+    /**
+     * Creates mock chronometer instance in <em>scaled</em> mode
+     *
+     * @param rate Time flow rate relative to real time
+     * @return Mock chronometer
+     */
+    public static MockChronometer createScaled(double rate) {
+        return new MockChronometer(Mode.SCALED).setRate(rate);
+    }
+
+    /**
+     * Creates mock chronometer instance in <em>scaled</em> mode
+     *
+     * @param moment Time
+     * @param tickNs Ticks
+     * @param rate Time flow rate relative to real time
+     * @return Mock chronometer
+     */
+    public static MockChronometer createScaled(String moment, long tickNs, double rate) {
+        return new MockChronometer(Mode.SCALED).setRate(rate).reset(moment, tickNs);
+    }
+
     /**
      * Convert string representation of time to epoch millis
      *
@@ -124,25 +218,35 @@ public final class MockChronometer implements Chronometer {
      * @see MockChronometer#TIMESTAMP_FORMAT
      */
     public static long toEpochMillis(String moment) {
-        ZonedDateTime t = ZonedDateTime.parse(moment, TIMESTAMP_FORMATTER);
-        return t.toInstant().toEpochMilli();
+        return TimestampParser.parse(moment);
     }
 
     /**
      * Set the state from system time sources
      */
     public MockChronometer resetNow() {
-        switch (mode) {
-            case FROZEN:
-            case TICKING:
-                this.stateRef.set(State.now());
-                return this;
-            case SYSTEM:
-                // do nothing as a chronometer in system mode always provides the current time
-                return this;
-            default:
-                throw new IllegalStateException("Mode doesn't support state parameters: " + mode);
+        lockState();
+        try {
+            switch (mode) {
+                case FROZEN:
+                case BLOCKING:
+                case SIMULATED:
+                case TICKING:
+                case SCALED:
+                    writeNow();
+                    break;
+                case SYSTEM:
+                    // do nothing as a chronometer in system mode always provides the current time
+                    return this;
+                default:
+                    throw new IllegalStateException("Mode doesn't support state parameters: " + mode);
+            }
+        } finally {
+            unlockState();
         }
+
+        fireChanged();
+        return this;
     }
 
     /**
@@ -153,14 +257,25 @@ public final class MockChronometer implements Chronometer {
      * @param tickNs Ticks
      */
     public MockChronometer reset(long epochTimeMs, long adjustmentNs, long tickNs) {
-        switch (mode) {
-            case FROZEN:
-            case TICKING:
-                this.stateRef.set(State.of(epochTimeMs, adjustmentNs, tickNs));
-                return this;
-            default:
-                throw new IllegalStateException("Mode doesn't support state parameters: " + mode);
+        lockState();
+        try {
+            switch (mode) {
+                case FROZEN:
+                case BLOCKING:
+                case SIMULATED:
+                case TICKING:
+                case SCALED:
+                    write(epochTimeMs, adjustmentNs, tickNs, SystemChronometer.INSTANCE.getTickNs());
+                    break;
+                default:
+                    throw new IllegalStateException("Mode doesn't support state parameters: " + mode);
+            }
+        } finally {
+            unlockState();
         }
+
+        fireChanged();
+        return this;
     }
 
     /**
@@ -170,14 +285,7 @@ public final class MockChronometer implements Chronometer {
      * @param tickNs Ticks
      */
     public MockChronometer reset(String moment, long tickNs) {
-        switch (mode) {
-            case FROZEN:
-            case TICKING:
-                this.stateRef.set(State.of(toEpochMillis(moment), 0, tickNs));
-                return this;
-            default:
-                throw new IllegalStateException("Mode doesn't support state parameters: " + mode);
-        }
+        return reset(toEpochMillis(moment), 0, tickNs);
     }
 
     /**
@@ -187,13 +295,28 @@ public final class MockChronometer implements Chronometer {
      */
     @Override
     public long getTickNs() {
-        State state = stateRef.get();
+        long version;
+        Mode mode;
+        long tickNs;
+        long createdNs;
+        double rate;
+
+        do {
+            version = stateLock.beginRead();
+            mode = this.mode;
+            tickNs = this.tickNs;
+            createdNs = this.createdNs;
+            rate = this.rate;
+        } while (!stateLock.validate(version));
 
         switch (mode) {
             case FROZEN:
-                return state.tickNs;
+            case BLOCKING:
+            case SIMULATED:
+                return tickNs;
             case TICKING:
-                return state.tickNs + state.getElapsedNs();
+            case SCALED:
+                return tickNs + getElapsedSince(createdNs, mode, rate);
             case SYSTEM:
                 return SystemChronometer.INSTANCE.getTickNs();
             default:
@@ -207,13 +330,30 @@ public final class MockChronometer implements Chronometer {
      */
     @Override
     public long getTimeMs() {
-        State state = stateRef.get();
+        long version;
+        Mode mode;
+        long timeMs;
+        long timeNs;
+        long createdNs;
+        double rate;
+
+        do {
+            version = stateLock.beginRead();
+            mode = this.mode;
+            timeMs = this.timeMs;
+            timeNs = this.timeNs;
+            createdNs = this.createdNs;
+            rate = this.rate;
+        } while (!stateLock.validate(version));
 
         switch (mode) {
             case FROZEN:
-                return state.timeMs;
+            case BLOCKING:
+            case SIMULATED:
+                return timeMs;
             case TICKING:
-                return state.timeMs + Math.floorDiv(state.timeNs + state.getElapsedNs(), NS_IN_MS);
+            case SCALED:
+                return timeMs + Math.floorDiv(timeNs + getElapsedSince(createdNs, mode, rate), NS_IN_MS);
             case SYSTEM:
                 return SystemChronometer.INSTANCE.getTimeMs();
             default:
@@ -227,16 +367,34 @@ public final class MockChronometer implements Chronometer {
      */
     @Override
     public Instant getInstant() {
-        State state = stateRef.get();
-
-        long epochSec = Math.floorDiv(state.timeMs, MS_IN_SEC);
-        long epochMs = Math.floorMod(state.timeMs, MS_IN_SEC);
+        long version;
+        Mode mode;
+        long timeMs;
+        long timeNs;
+        long createdNs;
+        double rate;
+
+        do {
+            version = stateLock.beginRead();
+            mode = this.mode;
+            timeMs = this.timeMs;
+            timeNs = this.timeNs;
+            createdNs = this.createdNs;
+            rate = this.rate;
+        } while (!stateLock.validate(version));
+
+        long epochSec = Math.floorDiv(timeMs, MS_IN_SEC);
+        long epochMs = Math.floorMod(timeMs, MS_IN_SEC);
 
         switch (mode) {
             case FROZEN:
-                return Instant.ofEpochSecond(epochSec, epochMs * NS_IN_MS + state.timeNs);
+            case BLOCKING:
+            case SIMULATED:
+                return Instant.ofEpochSecond(epochSec, epochMs * NS_IN_MS + timeNs);
             case TICKING:
-                return Instant.ofEpochSecond(epochSec, epochMs * NS_IN_MS + state.timeNs + state.getElapsedNs());
+            case SCALED:
+                return Instant.ofEpochSecond(epochSec,
+                        epochMs * NS_IN_MS + timeNs + getElapsedSince(createdNs, mode, rate));
             case SYSTEM:
                 return SystemChronometer.INSTANCE.getInstant();
             default:
@@ -244,6 +402,92 @@ public final class MockChronometer implements Chronometer {
         }
     }
 
+    /**
+     * Returns mocked <em>wall clock</em> time value
+     * @return Wall clock time in nanoseconds since <em>epoch</em>
+     */
+    @Override
+    public long getEpochNanos() {
+        long version;
+        Mode mode;
+        long timeMs;
+        long timeNs;
+        long createdNs;
+        double rate;
+
+        do {
+            version = stateLock.beginRead();
+            mode = this.mode;
+            timeMs = this.timeMs;
+            timeNs = this.timeNs;
+            createdNs = this.createdNs;
+            rate = this.rate;
+        } while (!stateLock.validate(version));
+
+        switch (mode) {
+            case FROZEN:
+            case BLOCKING:
+            case SIMULATED:
+                return timeMs * NS_IN_MS + timeNs;
+            case TICKING:
+            case SCALED:
+                return timeMs * NS_IN_MS + timeNs + getElapsedSince(createdNs, mode, rate);
+            case SYSTEM:
+                return SystemChronometer.INSTANCE.getEpochNanos();
+            default:
+                throw new IllegalStateException("Unsupported mode: " + mode);
+        }
+    }
+
+    /**
+     * Reads mocked <em>wall clock</em> and <em>tick</em> time values from the same state
+     * @param sample Holder to fill
+     * @return The same holder
+     */
+    @Override
+    public TimeSample getSample(TimeSample sample) {
+        long version;
+        Mode mode;
+        long timeMs;
+        long timeNs;
+        long tickNs;
+        long createdNs;
+        double rate;
+
+        do {
+            version = stateLock.beginRead();
+            mode = this.mode;
+            timeMs = this.timeMs;
+            timeNs = this.timeNs;
+            tickNs = this.tickNs;
+            createdNs = this.createdNs;
+            rate = this.rate;
+        } while (!stateLock.validate(version));
+
+        switch (mode) {
+            case FROZEN:
+            case BLOCKING:
+            case SIMULATED:
+                return sample.set(timeMs, tickNs);
+            case TICKING:
+            case SCALED:
+                long elapsedNs = getElapsedSince(createdNs, mode, rate);
+                return sample.set(timeMs + Math.floorDiv(timeNs + elapsedNs, NS_IN_MS), tickNs + elapsedNs);
+            case SYSTEM:
+                return SystemChronometer.INSTANCE.getSample(sample);
+            default:
+                throw new IllegalStateException("Unsupported mode: " + mode);
+        }
+    }
+
+    /**
+     * Pause current thread on specified time. In <em>frozen</em> and <em>ticking</em> modes the time is just shifted
+     * by the pause, in <em>blocking</em> and <em>simulated</em> modes the thread waits until the time is shifted past
+     * the pause deadline, in <em>scaled</em> mode the thread sleeps for the pause divided by the rate.
+     *
+     * @param pauseMs Pause duration in milliseconds
+     * @throws InterruptedException Thrown if the thread is interrupted
+     */
     @Override
     public void sleep(long pauseMs) throws InterruptedException {
         switch (mode) {
@@ -251,11 +495,27 @@ public final class MockChronometer implements Chronometer {
             case TICKING:
                 shiftBy(pauseMs);
                 break;
+            case BLOCKING:
+            case SIMULATED:
+                sleepBlocking(TimeUnit.MILLISECONDS.toNanos(pauseMs));
+                break;
+            case SCALED:
+                sleepScaled(TimeUnit.MILLISECONDS.toNanos(pauseMs));
+                break;
             default:
                 SystemChronometer.INSTANCE.sleep(pauseMs);
         }
     }
 
+    /**
+     * Pause current thread on specified time. In <em>frozen</em> and <em>ticking</em> modes the time is just shifted
+     * by the pause, in <em>blocking</em> and <em>simulated</em> modes the thread waits until the time is shifted past
+     * the pause deadline, in <em>scaled</em> mode the thread sleeps for the pause divided by the rate.
+     *
+     * @param pause Pause duration
+     * @param pauseUnit Time unit for time duration
+     * @throws InterruptedException Thrown if the thread is interrupted
+     */
     @Override
     public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
         switch (mode) {
@@ -263,37 +523,241 @@ public final class MockChronometer implements Chronometer {
             case TICKING:
                 shiftBy(pause, pauseUnit);
                 break;
+            case BLOCKING:
+            case SIMULATED:
+                sleepBlocking(pauseUnit.toNanos(pause));
+                break;
+            case SCALED:
+                sleepScaled(pauseUnit.toNanos(pause));
+                break;
             default:
                 SystemChronometer.INSTANCE.sleep(pause, pauseUnit);
         }
     }
 
+    private void sleepScaled(long pauseNs) throws InterruptedException {
+        // the rate is a single volatile value, so it's read without the versioned state; the rate could be changed
+        // right after the read or during the sleep, so it's just an approximation in that case
+        SystemChronometer.INSTANCE.sleep((long) (pauseNs / rate), TimeUnit.NANOSECONDS);
+    }
+
+    private void sleepBlocking(long pauseNs) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        if (pauseNs <= 0) {
+            return;
+        }
+
+        Sleeper sleeper;
+
+        sleepLock.lock();
+        try {
+            Thread thread = Thread.currentThread();
+            sleeper = new Sleeper(thread, getTickNs() + pauseNs, sleeperSequence++, participants.contains(thread));
+            sleepers.add(sleeper);
+
+            if (sleeper.participant) {
+                sleepingParticipants++;
+            }
+        } finally {
+            sleepLock.unlock();
+        }
+
+        // the time could be shifted concurrently before the sleeper is registered
+        wakeSleepers(false);
+        advanceIfIdle();
+
+        while (!sleeper.woken) {
+            LockSupport.park(this);
+
+            if (Thread.interrupted()) {
+                boolean removed;
+
+                sleepLock.lock();
+                try {
+                    removed = sleepers.remove(sleeper);
+
+                    if (removed && sleeper.participant) {
+                        sleepingParticipants--;
+                    }
+                } finally {
+                    sleepLock.unlock();
+                }
+
+                if (removed) {
+                    throw new InterruptedException();
+                } else {
+                    // the sleeper has been woken concurrently so just keep the interrupted status
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void wakeSleepers(boolean all) {
+        sleepLock.lock();
+        try {
+            long nowNs = getTickNs();
+
+            Sleeper sleeper;
+            while ((sleeper = sleepers.peek()) != null && (all || sleeper.deadlineNs - nowNs <= 0)) {
+                sleepers.poll();
+
+                if (sleeper.participant) {
+                    sleepingParticipants--;
+                }
+
+                sleeper.woken = true;
+                LockSupport.unpark(sleeper.thread);
+            }
+        } finally {
+            sleepLock.unlock();
+        }
+    }
+
+    private void advanceIfIdle() {
+        if (mode != Mode.SIMULATED) {
+            return;
+        }
+
+        long deadlineNs;
+
+        sleepLock.lock();
+        try {
+            Sleeper sleeper = sleepers.peek();
+
+            if (participants.isEmpty() || sleepingParticipants < participants.size() || sleeper == null) {
+                return;
+            }
+
+            deadlineNs = sleeper.deadlineNs;
+        } finally {
+            sleepLock.unlock();
+        }
+
+        // all participants are sleeping - jump to the nearest deadline
+        if (advanceTo(deadlineNs)) {
+            fireChanged();
+        } else {
+            wakeSleepers(false);
+        }
+    }
+
+    /**
+     * Moves the time forward to the tick unless it's already there. Several threads could find the participants
+     * idle at once, so the check and the move are done under the state lock and only the first thread moves.
+     *
+     * @return True if the time has been moved
+     */
+    private boolean advanceTo(long deadlineNs) {
+        lockState();
+        try {
+            long deltaNs = deadlineNs - tickNs;
+            if (mode != Mode.SIMULATED || deltaNs <= 0) {
+                return false;
+            }
+
+            write(timeMs, timeNs + deltaNs, deadlineNs, createdNs);
+            return true;
+        } finally {
+            unlockState();
+        }
+    }
+
+    /**
+     * Registers the current thread as a participant of simulation in <em>simulated</em> mode. The thread must be
+     * unregistered before it finishes, otherwise the time will never be advanced automatically.
+     */
+    public MockChronometer register() {
+        return register(Thread.currentThread());
+    }
+
+    /**
+     * Registers the thread as a participant of simulation in <em>simulated</em> mode. The thread must be
+     * unregistered before it finishes, otherwise the time will never be advanced automatically.
+     * @param thread Participant thread
+     */
+    public MockChronometer register(Thread thread) {
+        sleepLock.lock();
+        try {
+            participants.add(thread);
+        } finally {
+            sleepLock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Unregisters the current thread from participants of simulation
+     */
+    public MockChronometer unregister() {
+        return unregister(Thread.currentThread());
+    }
+
+    /**
+     * Unregisters the thread from participants of simulation
+     * @param thread Participant thread
+     */
+    public MockChronometer unregister(Thread thread) {
+        sleepLock.lock();
+        try {
+            participants.remove(thread);
+        } finally {
+            sleepLock.unlock();
+        }
+
+        // the rest of participants could be sleeping already
+        advanceIfIdle();
+        return this;
+    }
+
+    /**
+     * Number of threads sleeping in <em>blocking</em> or <em>simulated</em> mode
+     * @return Number of sleeping threads
+     */
+    public int getSleeperCount() {
+        sleepLock.lock();
+        try {
+            return sleepers.size();
+        } finally {
+            sleepLock.unlock();
+        }
+    }
+
     /**
      * Shifts both <em>tick</em> and <em>wall clock</em> times by specified value
      * @param deltaMs Shift value in milliseconds
      * @param deltaNs Additional shift delta value in nanoseconds
      */
     public MockChronometer shiftBy(long deltaMs, long deltaNs) {
-        while (true) {
-            State curState = stateRef.get();
+        lockState();
+        try {
+            long shiftNs = deltaMs * NS_IN_MS + deltaNs;
 
-            State newState;
             switch (mode) {
                 case FROZEN:
-                    newState = curState.shiftBoth(deltaMs, deltaNs);
+                case BLOCKING:
+                case SIMULATED:
+                    write(timeMs + deltaMs, timeNs + deltaNs, tickNs + shiftNs, createdNs);
                     break;
                 case TICKING:
-                    newState = curState.actualize().shiftBoth(deltaMs, deltaNs);
+                case SCALED:
+                    long nowNs = SystemChronometer.INSTANCE.getTickNs();
+                    long elapsedNs = scale(getElapsed(createdNs, nowNs, TimeUnit.NANOSECONDS), mode, rate);
+                    write(timeMs + deltaMs, timeNs + elapsedNs + deltaNs, tickNs + elapsedNs + shiftNs, nowNs);
                     break;
                 default:
                     throw new IllegalStateException("Mode is not supported: " + mode);
             }
-
-            if (stateRef.compareAndSet(curState, newState)) {
-                break;
-            }
+        } finally {
+            unlockState();
         }
 
+        fireChanged();
         return this;
     }
 
@@ -325,24 +789,25 @@ public final class MockChronometer implements Chronometer {
      * @see System#currentTimeMillis()
      */
     public MockChronometer shiftTo(long epochTimeMs, long adjustmentNs) {
-        while (true) {
-            State curState = stateRef.get();
-
-            State newState;
+        lockState();
+        try {
             switch (mode) {
                 case FROZEN:
+                case BLOCKING:
+                case SIMULATED:
                 case TICKING:
-                    newState = curState.shiftBoth(epochTimeMs - curState.timeMs, adjustmentNs - curState.timeNs);
+                case SCALED:
+                    long shiftNs = (epochTimeMs - timeMs) * NS_IN_MS + (adjustmentNs - timeNs);
+                    write(epochTimeMs, adjustmentNs, tickNs + shiftNs, SystemChronometer.INSTANCE.getTickNs());
                     break;
                 default:
                     throw new IllegalStateException("Mode is not supported: " + mode);
             }
-
-            if (stateRef.compareAndSet(curState, newState)) {
-                break;
-            }
+        } finally {
+            unlockState();
         }
 
+        fireChanged();
         return this;
     }
 
@@ -409,26 +874,28 @@ public final class MockChronometer implements Chronometer {
      * @param deltaNs Shift delta value in nanoseconds
      */
     public MockChronometer correctTimeBy(long deltaMs, long deltaNs) {
-        while (true) {
-            State curState = stateRef.get();
-
-            State newState;
+        lockState();
+        try {
             switch (mode) {
                 case FROZEN:
-                    newState = curState.shiftTime(deltaMs, deltaNs);
+                case BLOCKING:
+                case SIMULATED:
+                    write(timeMs + deltaMs, timeNs + deltaNs, tickNs, createdNs);
                     break;
                 case TICKING:
-                    newState = curState.actualize().shiftTime(deltaMs, deltaNs);
+                case SCALED:
+                    long nowNs = SystemChronometer.INSTANCE.getTickNs();
+                    long elapsedNs = scale(getElapsed(createdNs, nowNs, TimeUnit.NANOSECONDS), mode, rate);
+                    write(timeMs + deltaMs, timeNs + elapsedNs + deltaNs, tickNs + elapsedNs, nowNs);
                     break;
                 default:
                     throw new IllegalStateException("Mode is not supported: " + mode);
             }
-
-            if (stateRef.compareAndSet(curState, newState)) {
-                break;
-            }
+        } finally {
+            unlockState();
         }
 
+        fireChanged();
         return this;
     }
 
@@ -439,29 +906,128 @@ public final class MockChronometer implements Chronometer {
      * @see System#currentTimeMillis()
      */
     public MockChronometer correctTimeTo(long epochTimeMs, long adjustmentNs) {
-        while (true) {
-            State curState = stateRef.get();
-
-            State newState;
+        lockState();
+        try {
             switch (mode) {
                 case FROZEN:
-                    newState = curState.changeTime(epochTimeMs, adjustmentNs);
+                case BLOCKING:
+                case SIMULATED:
+                    write(epochTimeMs, adjustmentNs, tickNs, createdNs);
                     break;
                 case TICKING:
-                    newState = curState.actualize().changeTime(epochTimeMs, adjustmentNs);
+                case SCALED:
+                    long nowNs = SystemChronometer.INSTANCE.getTickNs();
+                    long elapsedNs = scale(getElapsed(createdNs, nowNs, TimeUnit.NANOSECONDS), mode, rate);
+                    write(epochTimeMs, adjustmentNs, tickNs + elapsedNs, nowNs);
                     break;
                 default:
                     throw new IllegalStateException("Mode is not supported: " + mode);
             }
+        } finally {
+            unlockState();
+        }
 
-            if (stateRef.compareAndSet(curState, newState)) {
-                break;
+        fireChanged();
+        return this;
+    }
+
+    /**
+     * Sets the time flow rate of <em>scaled</em> mode. The time elapsed at the previous rate is kept, so there is no
+     * discontinuity of time values.
+     *
+     * @param rate Time flow rate relative to real time: 60 makes one real minute an hour, 0.1 is a slow motion
+     * @return Mock chronometer
+     */
+    public MockChronometer setRate(double rate) {
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Rate must be positive and finite: " + rate);
+        }
+
+        lockState();
+        try {
+            if (mode == Mode.SCALED) {
+                long nowNs = SystemChronometer.INSTANCE.getTickNs();
+                long elapsedNs = scale(getElapsed(createdNs, nowNs, TimeUnit.NANOSECONDS), mode, this.rate);
+                write(timeMs, timeNs + elapsedNs, tickNs + elapsedNs, nowNs);
             }
+
+            this.rate = rate;
+        } finally {
+            unlockState();
         }
 
         return this;
     }
 
+    /**
+     * Get time flow rate of <em>scaled</em> mode
+     *
+     * @return Rate relative to real time
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    private void lockState() {
+        stateLock.lock();
+    }
+
+    private void unlockState() {
+        stateLock.unlock();
+    }
+
+    private void writeNow() {
+        long tickNs = SystemChronometer.INSTANCE.getTickNs();
+        write(SystemChronometer.INSTANCE.getTimeMs(), 0, tickNs, tickNs);
+    }
+
+    private void write(long timeMs, long timeNs, long tickNs, long createdNs) {
+        // Math.floorDiv(-123, 100) == -2
+        // Math.floorDiv(+123, 100) == 1
+        this.timeMs = timeMs + Math.floorDiv(timeNs, NS_IN_MS);
+
+        // Math.floorMod(-123, 100) == 77
+        // Math.floorMod(+123, 100) == 23
+        this.timeNs = Math.floorMod(timeNs, NS_IN_MS);
+
+        this.tickNs = tickNs;
+        this.createdNs = createdNs;
+    }
+
+    private static long getElapsedSince(long createdNs, Mode mode, double rate) {
+        return scale(SystemChronometer.INSTANCE.getElapsedNs(createdNs), mode, rate);
+    }
+
+    private static long scale(long elapsedNs, Mode mode, double rate) {
+        return mode == Mode.SCALED ? (long) (elapsedNs * rate) : elapsedNs;
+    }
+
+    /**
+     * Registers listener that is notified after each change of the mocked time
+     * @param listener Listener
+     */
+    public MockChronometer addListener(Listener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Unregisters listener
+     * @param listener Listener
+     */
+    public MockChronometer removeListener(Listener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    private void fireChanged() {
+        wakeSleepers(false);
+
+        for (Listener listener : listeners) {
+            listener.onChanged(this);
+        }
+    }
+
     /**
      * Get mode of mock chronometer
      * @return Mode
@@ -470,13 +1036,48 @@ public final class MockChronometer implements Chronometer {
         return mode;
     }
 
+    /**
+     * Checks if the mocked time moves only when it's changed, that is in {@link Mode#FROZEN},
+     * {@link Mode#BLOCKING} and {@link Mode#SIMULATED} modes
+     *
+     * @return True if the time doesn't flow by itself
+     */
+    public boolean isVirtual() {
+        switch (mode) {
+            case FROZEN:
+            case BLOCKING:
+            case SIMULATED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Set mock chronometer mode
      * @param mode Mode
      */
     public void setMode(Mode mode) {
-        this.mode = mode;
-        this.resetNow();
+        lockState();
+        try {
+            this.mode = mode;
+
+            if (mode != Mode.SYSTEM) {
+                writeNow();
+            }
+        } finally {
+            unlockState();
+        }
+
+        if (mode != Mode.SYSTEM) {
+            fireChanged();
+        }
+
+        if (mode != Mode.BLOCKING && mode != Mode.SIMULATED) {
+            wakeSleepers(true);
+        } else {
+            advanceIfIdle();
+        }
     }
 
     @Override
@@ -502,63 +1103,77 @@ public final class MockChronometer implements Chronometer {
         /**
          * Chronometer acts like system chronometer
          */
-        SYSTEM
+        SYSTEM,
 
-    }
-
-    private static final class State {
-
-        private final long timeMs;
+        /**
+         * State of mock chronometer can only be changed with implicit method calls like in <em>frozen</em> mode,
+         * but {@code sleep} blocks the calling thread until other threads shift the time past the thread's deadline.
+         * Sleeping threads are woken in the order of their deadlines.
+         */
+        BLOCKING,
 
-        private final long timeNs;
+        /**
+         * Discrete-event simulation mode. Works like <em>blocking</em> mode, but when all registered participant
+         * threads are sleeping the time jumps directly to the nearest deadline of sleeping threads. Hours of
+         * simulated time could pass in milliseconds this way.
+         *
+         * @see MockChronometer#register()
+         */
+        SIMULATED,
 
-        private final long tickNs;
+        /**
+         * State of mock chronometer can be changed. Time is ticking after each change like in <em>ticking</em> mode,
+         * but faster or slower than the real time by the configured rate.
+         *
+         * @see MockChronometer#setRate(double)
+         */
+        SCALED
 
-        private final long createdNs;
+    }
 
-        private State(long timeMs, long timeNs, long tickNs) {
-            this.createdNs = SystemChronometer.INSTANCE.getTickNs();
+    /**
+     * Listener of mocked time changes. It's called synchronously by the thread that has changed the time with
+     * {@code shiftBy}, {@code shiftTo}, {@code correctTimeBy}, {@code correctTimeTo}, {@code reset} or
+     * {@code sleep} call.
+     */
+    @FunctionalInterface
+    public interface Listener {
 
-            // Math.floorDiv(-123, 100) == -2
-            // Math.floorDiv(+123, 100) == 1
-            this.timeMs = timeMs + Math.floorDiv(timeNs, NS_IN_MS);
+        /**
+         * Called after the time of chronometer has been changed
+         * @param chronometer Changed chronometer
+         */
+        void onChanged(MockChronometer chronometer);
 
-            // Math.floorMod(-123, 100) == 77
-            // Math.floorMod(+123, 100) == 23
-            this.timeNs = Math.floorMod(timeNs, NS_IN_MS);
+    }
 
-            this.tickNs = tickNs;
-        }
+    private static final class Sleeper implements Comparable<Sleeper> {
 
-        private static State of(long timeMs, long timeNs, long tickNs) {
-            return new State(timeMs, timeNs, tickNs);
-        }
+        private final Thread thread;
 
-        private static State now() {
-            long timeMs = SystemChronometer.INSTANCE.getTimeMs();
-            long tickNs = SystemChronometer.INSTANCE.getTickNs();
+        private final long deadlineNs;
 
-            return State.of(timeMs, 0, tickNs);
-        }
+        private final long sequence;
 
-        private State shiftBoth(long deltaMs, long deltaNs) {
-            return State.of(this.timeMs + deltaMs, this.timeNs + deltaNs, this.tickNs + deltaMs * NS_IN_MS + deltaNs);
-        }
+        private final boolean participant;
 
-        private State shiftTime(long deltaMs, long deltaNs) {
-            return State.of(this.timeMs + deltaMs, this.timeNs + deltaNs, this.tickNs);
-        }
+        private volatile boolean woken;
 
-        private State changeTime(long timeMs, long timeNs) {
-            return State.of(timeMs, timeNs, this.tickNs);
+        private Sleeper(Thread thread, long deadlineNs, long sequence, boolean participant) {
+            this.thread = thread;
+            this.deadlineNs = deadlineNs;
+            this.sequence = sequence;
+            this.participant = participant;
         }
 
-        private State actualize() {
-            return shiftBoth(0, getElapsedNs());
-        }
+        @Override
+        public int compareTo(Sleeper other) {
+            long diffNs = deadlineNs - other.deadlineNs;
+            if (diffNs != 0) {
+                return diffNs < 0 ? -1 : 1;
+            }
 
-        private long getElapsedNs() {
-            return SystemChronometer.INSTANCE.getElapsedNs(this.createdNs);
+            return Long.compare(sequence, other.sequence);
         }
 
     }
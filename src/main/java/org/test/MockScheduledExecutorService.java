@@ -0,0 +1,464 @@
+package org.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Scheduled executor service that runs in virtual time of {@link MockChronometer}. Tasks are kept in a priority
+ * queue and are executed synchronously by the thread that advances the mocked time with {@code shiftBy},
+ * {@code shiftTo} or {@code sleep}: every due task is executed in the order of deadlines. Tasks without delay are
+ * executed immediately by the submitting thread.</p>
+ *
+ * <p>Fixed-rate tasks are rescheduled relative to their previous deadline, so a long shift of time executes all
+ * missed periods. Fixed-delay tasks are rescheduled relative to the time when execution completes.</p>
+ *
+ * <p>In ticking and scaled modes the mocked time flows by itself, so the due tasks are also checked by a worker
+ * thread started with {@link MockScheduledExecutorService#start(long, TimeUnit)}.</p>
+ *
+ * <p>Use {@link MockScheduledExecutorService#create(Chronometer, int)} to get the same code working with
+ * {@link SystemChronometer} in production and with {@link MockChronometer} in tests.</p>
+ */
+public final class MockScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    public static final long DEFAULT_POLL_NS = Chronometer.NS_IN_MS;
+
+    private final MockChronometer chronometer;
+
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+
+    private final AtomicLong sequencer = new AtomicLong();
+
+    private final MockChronometer.Listener listener = chronometer -> runDueTasks();
+
+    private final Object lock = new Object();
+
+    private boolean draining;
+
+    private boolean shutdown;
+
+    private volatile Thread worker;
+
+    /**
+     * Constructs executor service bound to mock chronometer
+     *
+     * @param chronometer Mock chronometer
+     */
+    public MockScheduledExecutorService(MockChronometer chronometer) {
+        this.chronometer = chronometer;
+        this.chronometer.addListener(listener);
+    }
+
+    /**
+     * Creates scheduled executor service for the chronometer. That is {@link MockScheduledExecutorService} for
+     * {@link MockChronometer} in {@link MockChronometer.Mode#FROZEN}, {@link MockChronometer.Mode#BLOCKING} or
+     * {@link MockChronometer.Mode#SIMULATED} mode, the same one with a worker thread for ticking and scaled modes
+     * where the mocked time flows by itself, and a regular {@link ScheduledThreadPoolExecutor} for any other
+     * chronometer. The choice is made by the mode at creation.
+     *
+     * @param chronometer Time source
+     * @param corePoolSize Number of threads for real executor
+     * @return Scheduled executor service
+     */
+    public static ScheduledExecutorService create(Chronometer chronometer, int corePoolSize) {
+        if (!(chronometer instanceof MockChronometer)) {
+            return new ScheduledThreadPoolExecutor(corePoolSize);
+        }
+
+        MockChronometer mockChronometer = (MockChronometer) chronometer;
+
+        if (mockChronometer.isVirtual()) {
+            return new MockScheduledExecutorService(mockChronometer);
+        } else if (mockChronometer.getMode() != MockChronometer.Mode.SYSTEM) {
+            return new MockScheduledExecutorService(mockChronometer).start(DEFAULT_POLL_NS, TimeUnit.NANOSECONDS);
+        } else {
+            return new ScheduledThreadPoolExecutor(corePoolSize);
+        }
+    }
+
+    /**
+     * Starts the daemon worker thread that executes due tasks once a poll period of real time. It's needed when
+     * the mocked time flows by itself. The worker stops when the executor service is terminated.
+     *
+     * @param pollPeriod Poll period
+     * @param pollUnit Time unit for poll period
+     * @return Executor service
+     */
+    public MockScheduledExecutorService start(long pollPeriod, TimeUnit pollUnit) {
+        long pollNs = pollUnit.toNanos(pollPeriod);
+        if (pollNs <= 0) {
+            throw new IllegalArgumentException("Poll period must be positive: " + pollPeriod);
+        }
+
+        synchronized (lock) {
+            if (worker != null) {
+                throw new IllegalStateException("Executor service is already started");
+            }
+            if (shutdown) {
+                throw new IllegalStateException("Executor service is shut down");
+            }
+
+            worker = new Thread(() -> work(pollNs), "mock-scheduler");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        return this;
+    }
+
+    private void work(long pollNs) {
+        Thread current = Thread.currentThread();
+
+        while (worker == current) {
+            runDueTasks();
+            LockSupport.parkNanos(this, pollNs);
+        }
+    }
+
+    private void stop() {
+        Thread thread = worker;
+        worker = null;
+
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(new Task<Void>(Executors.callable(command, null), deadline(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(new Task<>(callable, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+
+        return enqueue(new Task<Void>(Executors.callable(command, null), deadline(initialDelay, unit),
+                unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delay);
+        }
+
+        return enqueue(new Task<Void>(Executors.callable(command, null), deadline(initialDelay, unit),
+                -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        return chronometer.getTickNs() + Math.max(0, unit.toNanos(delay));
+    }
+
+    private <V> Task<V> enqueue(Task<V> task) {
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor service is shut down");
+            }
+
+            queue.add(task);
+        }
+
+        runDueTasks();
+        return task;
+    }
+
+    /**
+     * Executes all due tasks in the current thread. Normally it's called automatically on each change of the
+     * mocked time.
+     *
+     * @return Number of executed tasks
+     */
+    public int runDueTasks() {
+        int count = 0;
+
+        while (true) {
+            Task<?> task;
+
+            synchronized (lock) {
+                if (draining && count == 0) {
+                    // some thread is already executing tasks and will check the queue again
+                    return 0;
+                }
+
+                task = queue.peek();
+
+                if (task == null || task.deadlineNs - chronometer.getTickNs() > 0) {
+                    draining = false;
+                    lock.notifyAll();
+                    break;
+                }
+
+                queue.poll();
+                draining = true;
+            }
+
+            task.execute();
+            count++;
+        }
+
+        detachIfTerminated();
+        return count;
+    }
+
+    /**
+     * Shifts the mocked time forward, stopping at the deadline of each task on the way, so every task is executed
+     * with the mocked time equal to its deadline
+     *
+     * @param delta Shift delta value
+     * @param deltaUnit Shift delta value time unit
+     */
+    public MockScheduledExecutorService advanceBy(long delta, TimeUnit deltaUnit) {
+        long targetNs = chronometer.getTickNs() + deltaUnit.toNanos(delta);
+
+        while (true) {
+            long nextNs;
+
+            synchronized (lock) {
+                Task<?> task = queue.peek();
+                nextNs = task != null && task.deadlineNs - targetNs < 0 ? task.deadlineNs : targetNs;
+            }
+
+            long stepNs = nextNs - chronometer.getTickNs();
+            if (stepNs > 0) {
+                chronometer.shiftBy(0, stepNs);
+            } else {
+                runDueTasks();
+            }
+
+            if (nextNs == targetNs) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Number of scheduled tasks
+     *
+     * @return Queue size
+     */
+    public int getQueueSize() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Rejects new tasks. Delayed tasks which are already scheduled are still executed when the mocked time reaches
+     * their deadlines, periodic tasks are cancelled, the same as with the default policies of
+     * {@link ScheduledThreadPoolExecutor}.
+     */
+    @Override
+    public void shutdown() {
+        List<Task<?>> periodic = new ArrayList<>();
+
+        synchronized (lock) {
+            shutdown = true;
+
+            for (Task<?> task : queue) {
+                if (task.isPeriodic()) {
+                    periodic.add(task);
+                }
+            }
+        }
+
+        for (Task<?> task : periodic) {
+            task.cancel(false);
+        }
+
+        detachIfTerminated();
+    }
+
+    private void detachIfTerminated() {
+        synchronized (lock) {
+            if (!(shutdown && queue.isEmpty() && !draining)) {
+                return;
+            }
+
+            lock.notifyAll();
+        }
+
+        // the time doesn't have to be tracked once all delayed tasks have been executed
+        chronometer.removeListener(listener);
+        stop();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks;
+
+        synchronized (lock) {
+            shutdown = true;
+            tasks = new ArrayList<>(queue);
+            queue.clear();
+            lock.notifyAll();
+        }
+
+        chronometer.removeListener(listener);
+        stop();
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    /**
+     * Checks if the executor is shut down and there are no scheduled or executing tasks. After
+     * {@link MockScheduledExecutorService#shutdown()} the executor terminates once the mocked time passes the
+     * deadline of the last delayed task.
+     *
+     * @return True if terminated
+     */
+    @Override
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return shutdown && queue.isEmpty() && !draining;
+        }
+    }
+
+    /**
+     * Waits for termination. The timeout is measured in real time as the virtual time is advanced by other threads.
+     *
+     * @param timeout Timeout
+     * @param unit Time unit for timeout
+     * @return True if terminated
+     * @throws InterruptedException Thrown if the thread is interrupted
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNs = SystemChronometer.INSTANCE.getTickNs() + unit.toNanos(timeout);
+
+        synchronized (lock) {
+            while (!(shutdown && queue.isEmpty() && !draining)) {
+                long remainingNs = deadlineNs - SystemChronometer.INSTANCE.getTickNs();
+                if (remainingNs <= 0) {
+                    return false;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(lock, remainingNs);
+            }
+
+            return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MockScheduledExecutorService(%d tasks): %s", getQueueSize(), chronometer);
+    }
+
+    private final class Task<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        private final long sequence;
+
+        /**
+         * Positive for fixed-rate, negative for fixed-delay and zero for one-shot tasks
+         */
+        private final long periodNs;
+
+        private volatile long deadlineNs;
+
+        private Task(Callable<V> callable, long deadlineNs, long periodNs) {
+            super(callable);
+            this.sequence = sequencer.getAndIncrement();
+            this.deadlineNs = deadlineNs;
+            this.periodNs = periodNs;
+        }
+
+        private void execute() {
+            if (periodNs == 0) {
+                run();
+            } else if (runAndReset()) {
+                if (periodNs > 0) {
+                    deadlineNs += periodNs;
+                } else {
+                    deadlineNs = chronometer.getTickNs() - periodNs;
+                }
+
+                synchronized (lock) {
+                    if (!shutdown) {
+                        queue.add(this);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if (cancelled) {
+                synchronized (lock) {
+                    queue.remove(this);
+                    lock.notifyAll();
+                }
+
+                detachIfTerminated();
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return periodNs != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNs - chronometer.getTickNs(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+
+            if (other instanceof Task) {
+                Task<?> task = (Task<?>) other;
+
+                long diffNs = deadlineNs - task.deadlineNs;
+                if (diffNs != 0) {
+                    return diffNs < 0 ? -1 : 1;
+                }
+
+                return Long.compare(sequence, task.sequence);
+            }
+
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+    }
+
+}
@@ -0,0 +1,204 @@
+package org.test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Decorator that makes <em>tick</em> time of another chronometer strictly non-decreasing. {@link System#nanoTime()}
+ * could go back a little when a thread migrates between CPU cores, {@link Chronometer#getElapsedNs(long)} hides that
+ * by the jitter rule, but ordering of raw tick values between threads is still broken.</p>
+ *
+ * <p>{@link MonotonicChronometer#global(Chronometer)} guarantees that a tick value is never less than any value
+ * returned before by any thread. The last value is kept in a single padded cell that is updated with CAS only when
+ * the time moves forward, so threads that read the same or an older value don't write at all, and a failed CAS
+ * usually means that another thread has already published a later value which is returned instead.
+ * {@link MonotonicChronometer#perThread(Chronometer)} only guarantees the order of values within each thread and
+ * has no shared state at all.</p>
+ *
+ * <p>Regressed values are replaced by the last returned one. A correction is counted only when the delegate returns
+ * a value below the one this thread has already got, values that are just older than the value published by another
+ * thread in between are replaced silently. The number of corrections is available with
+ * {@link MonotonicChronometer#getCorrectionCount()}. <em>Wall clock</em> time and sleeping are delegated as is.</p>
+ */
+public final class MonotonicChronometer implements Chronometer {
+
+    // keep the last value on its own cache line
+    private static final int PADDING = 8;
+
+    private final Chronometer delegate;
+
+    private final boolean global;
+
+    private final AtomicLongArray lastTick;
+
+    private final ThreadLocal<long[]> threadLastTick;
+
+    private final LongAdder corrections = new LongAdder();
+
+    private final AtomicLong maxCorrectionNs = new AtomicLong();
+
+    private MonotonicChronometer(Chronometer delegate, boolean global) {
+        this.delegate = delegate;
+        this.global = global;
+
+        long tickNs = delegate.getTickNs();
+
+        if (global) {
+            this.lastTick = new AtomicLongArray(PADDING * 2);
+            this.lastTick.set(PADDING, tickNs);
+        } else {
+            this.lastTick = null;
+        }
+
+        // the last value returned to each thread
+        this.threadLastTick = ThreadLocal.withInitial(() -> new long[] {tickNs});
+    }
+
+    /**
+     * Creates chronometer with <em>tick</em> time that is non-decreasing across all threads
+     *
+     * @param delegate Source of the time values
+     * @return Monotonic chronometer
+     */
+    public static MonotonicChronometer global(Chronometer delegate) {
+        return new MonotonicChronometer(delegate, true);
+    }
+
+    /**
+     * Creates chronometer with <em>tick</em> time that is non-decreasing within each thread
+     *
+     * @param delegate Source of the time values
+     * @return Monotonic chronometer
+     */
+    public static MonotonicChronometer perThread(Chronometer delegate) {
+        return new MonotonicChronometer(delegate, false);
+    }
+
+    /**
+     * Returns <em>tick</em> time of the delegate, or the last returned value if the delegate has gone back
+     *
+     * @return Tick time in nanoseconds
+     */
+    @Override
+    public long getTickNs() {
+        long tickNs = delegate.getTickNs();
+
+        long[] seen = threadLastTick.get();
+        long seenNs = seen[0];
+
+        if (global) {
+            long lastNs = lastTick.get(PADDING);
+
+            while (tickNs - lastNs > 0) {
+                if (lastTick.compareAndSet(PADDING, lastNs, tickNs)) {
+                    lastNs = tickNs;
+                    break;
+                }
+
+                // another thread has published a value in between, most likely a later one
+                lastNs = lastTick.get(PADDING);
+            }
+
+            // a value older than the one published by another thread is not a regression of the delegate
+            if (tickNs - seenNs < 0) {
+                correct(seenNs - tickNs);
+            }
+
+            seen[0] = lastNs;
+            return lastNs;
+        } else {
+            if (tickNs - seenNs >= 0) {
+                seen[0] = tickNs;
+                return tickNs;
+            }
+
+            correct(seenNs - tickNs);
+            return seenNs;
+        }
+    }
+
+    private void correct(long regressionNs) {
+        corrections.increment();
+
+        long maxNs = maxCorrectionNs.get();
+        while (regressionNs > maxNs && !maxCorrectionNs.compareAndSet(maxNs, regressionNs)) {
+            maxNs = maxCorrectionNs.get();
+        }
+    }
+
+    @Override
+    public long getTimeMs() {
+        return delegate.getTimeMs();
+    }
+
+    @Override
+    public long getEpochMicros() {
+        return delegate.getEpochMicros();
+    }
+
+    @Override
+    public long getEpochNanos() {
+        return delegate.getEpochNanos();
+    }
+
+    @Override
+    public Instant getInstant() {
+        return delegate.getInstant();
+    }
+
+    @Override
+    public void sleep(long pauseMs) throws InterruptedException {
+        delegate.sleep(pauseMs);
+    }
+
+    @Override
+    public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
+        delegate.sleep(pause, pauseUnit);
+    }
+
+    /**
+     * Source of the time values
+     *
+     * @return Delegate chronometer
+     */
+    public Chronometer getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Checks if the order of <em>tick</em> values is guaranteed across all threads
+     *
+     * @return True for global, false for per-thread chronometer
+     */
+    public boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * Number of <em>tick</em> values of the delegate that have gone back and have been replaced
+     *
+     * @return Number of corrections
+     */
+    public long getCorrectionCount() {
+        return corrections.sum();
+    }
+
+    /**
+     * Maximal observed regression of the delegate <em>tick</em> time
+     *
+     * @return Regression in nanoseconds
+     */
+    public long getMaxCorrectionNs() {
+        return maxCorrectionNs.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MONOTONIC(%s, %d corrections): %s", global ? "global" : "per-thread",
+                getCorrectionCount(), delegate);
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.test;
+
+/**
+ * <p>Thread pauses that depend on the runtime. There is a Java 21 version of the class in the multi-release
+ * JAR.</p>
+ */
+final class Pauses {
+
+    private Pauses() {
+    }
+
+    /**
+     * Sleeps with {@link Thread#sleep(long, int)}
+     *
+     * @param pauseNs Pause duration in nanoseconds
+     * @throws InterruptedException Thrown if the thread is interrupted
+     * @throws IllegalArgumentException Thrown if the pause is negative
+     */
+    static void sleep(long pauseNs) throws InterruptedException {
+        long pauseMs = pauseNs / Chronometer.NS_IN_MS;
+        Thread.sleep(pauseMs, (int) (pauseNs - pauseMs * Chronometer.NS_IN_MS));
+    }
+
+    /**
+     * Hints a busy-wait loop, there is no such hint before Java 9
+     */
+    static void onSpinWait() {
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Hybrid sleep strategy for short and precise pauses. {@link Thread#sleep(long, int)} is rounded up to the
+ * OS timer slack, which is too coarse for sub-millisecond pacing. This strategy parks the thread until the
+ * remaining time drops to the <em>yield</em> threshold, then yields the CPU until the remaining time drops to the
+ * <em>spin</em> threshold and then busy-spins against {@link Chronometer#getTickNs()} till the deadline.</p>
+ *
+ * <p>The price of precision is CPU consumption in the last part of each pause. Thresholds should be just above
+ * the typical wake-up latency of the host.</p>
+ *
+ * <p>Overshoot of each pause (how late the thread is actually woken) is recorded, so the achieved accuracy could
+ * be monitored in production.</p>
+ *
+ * @see SystemChronometer#createPrecise()
+ */
+public final class PreciseSleeper {
+
+    public static final long DEFAULT_YIELD_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    public static final long DEFAULT_SPIN_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final long yieldThresholdNs;
+
+    private final long spinThresholdNs;
+
+    private final LongAdder sleepCount = new LongAdder();
+
+    private final LongAdder overshootNs = new LongAdder();
+
+    private final AtomicLong maxOvershootNs = new AtomicLong();
+
+    /**
+     * Constructs sleeper with default thresholds
+     */
+    public PreciseSleeper() {
+        this(DEFAULT_YIELD_THRESHOLD_NS, DEFAULT_SPIN_THRESHOLD_NS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs sleeper with specified thresholds
+     *
+     * @param yieldThreshold Remaining time when the thread stops parking and starts yielding
+     * @param spinThreshold Remaining time when the thread stops yielding and starts spinning
+     * @param thresholdUnit Time unit for thresholds
+     */
+    public PreciseSleeper(long yieldThreshold, long spinThreshold, TimeUnit thresholdUnit) {
+        if (spinThreshold < 0 || yieldThreshold < spinThreshold) {
+            throw new IllegalArgumentException(
+                    "Thresholds must satisfy 0 <= spin <= yield: " + spinThreshold + " / " + yieldThreshold);
+        }
+
+        this.yieldThresholdNs = thresholdUnit.toNanos(yieldThreshold);
+        this.spinThresholdNs = thresholdUnit.toNanos(spinThreshold);
+    }
+
+    /**
+     * Pause current thread on specified time
+     *
+     * @param chronometer Tick source
+     * @param pauseNs Pause duration in nanoseconds
+     * @throws InterruptedException Thrown if the thread is interrupted
+     */
+    public void sleep(Chronometer chronometer, long pauseNs) throws InterruptedException {
+        if (pauseNs <= 0) {
+            return;
+        }
+
+        long deadlineNs = chronometer.getTickNs() + pauseNs;
+
+        while (true) {
+            long remainingNs = deadlineNs - chronometer.getTickNs();
+
+            if (remainingNs <= 0) {
+                record(-remainingNs);
+                return;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (remainingNs > yieldThresholdNs) {
+                LockSupport.parkNanos(this, remainingNs - yieldThresholdNs);
+            } else if (remainingNs > spinThresholdNs) {
+                Thread.yield();
+            } else {
+                Pauses.onSpinWait();
+            }
+        }
+    }
+
+    private void record(long overshootNs) {
+        this.sleepCount.increment();
+        this.overshootNs.add(overshootNs);
+
+        long curMaxNs = maxOvershootNs.get();
+        while (overshootNs > curMaxNs && !maxOvershootNs.compareAndSet(curMaxNs, overshootNs)) {
+            curMaxNs = maxOvershootNs.get();
+        }
+    }
+
+    /**
+     * Remaining time when the thread stops parking and starts yielding
+     *
+     * @param timeUnit Time unit for result
+     * @return Threshold in selected time unit
+     */
+    public long getYieldThreshold(TimeUnit timeUnit) {
+        return timeUnit.convert(yieldThresholdNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Remaining time when the thread stops yielding and starts spinning
+     *
+     * @param timeUnit Time unit for result
+     * @return Threshold in selected time unit
+     */
+    public long getSpinThreshold(TimeUnit timeUnit) {
+        return timeUnit.convert(spinThresholdNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of completed pauses since the last statistics reset
+     *
+     * @return Number of pauses
+     */
+    public long getSleepCount() {
+        return sleepCount.sum();
+    }
+
+    /**
+     * Total overshoot of completed pauses since the last statistics reset
+     *
+     * @return Overshoot in nanoseconds
+     */
+    public long getOvershootNs() {
+        return overshootNs.sum();
+    }
+
+    /**
+     * Average overshoot of completed pauses since the last statistics reset
+     *
+     * @return Overshoot in nanoseconds
+     */
+    public long getMeanOvershootNs() {
+        long count = sleepCount.sum();
+        return count > 0 ? overshootNs.sum() / count : 0;
+    }
+
+    /**
+     * Maximal overshoot of completed pauses since the last statistics reset
+     *
+     * @return Overshoot in nanoseconds
+     */
+    public long getMaxOvershootNs() {
+        return maxOvershootNs.get();
+    }
+
+    /**
+     * Reset overshoot statistics
+     */
+    public void resetStatistics() {
+        sleepCount.reset();
+        overshootNs.reset();
+        maxOvershootNs.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sleeps: %d, mean overshoot: %d ns, max overshoot: %d ns",
+                getSleepCount(), getMeanOvershootNs(), getMaxOvershootNs());
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * <p>Token bucket rate limiter implemented as the <em>generic cell rate algorithm</em> (GCRA). Instead of a token
+ * counter and a refill timer the whole state is a single <em>theoretical arrival time</em> (TAT) in
+ * {@link Chronometer#getTickNs()} time: each permit moves it forward by the emission interval, and a request is
+ * allowed while the TAT stays within the burst window ahead of now. Refill is implicit, as the window moves with
+ * the time.</p>
+ *
+ * <p>The TAT is updated with a single CAS, so acquiring never blocks other threads, and the limiter is a small
+ * object without any buffers or threads, so thousands of them (per tenant, per key) are cheap to hold. With
+ * {@link MockChronometer} the refill is exactly reproducible, and blocking {@link RateLimiter#acquire(int)} sleeps
+ * with {@link Chronometer#sleep(long, TimeUnit)}, so the mocked time just moves forward.</p>
+ */
+public final class RateLimiter {
+
+    private static final AtomicLongFieldUpdater<RateLimiter> TAT =
+            AtomicLongFieldUpdater.newUpdater(RateLimiter.class, "tatNs");
+
+    private final Chronometer chronometer;
+
+    private final long intervalNs;
+
+    private final long burstNs;
+
+    private final int burst;
+
+    private volatile long tatNs;
+
+    /**
+     * Constructs rate limiter with the full bucket
+     *
+     * @param chronometer Time source
+     * @param permits Number of permits per period
+     * @param period Period
+     * @param periodUnit Time unit for period
+     * @param burst Maximal number of permits that could be acquired at once after idle time
+     */
+    public RateLimiter(Chronometer chronometer, long permits, long period, TimeUnit periodUnit, int burst) {
+        if (permits <= 0 || period <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permits + " / " + period);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+
+        long intervalNs = periodUnit.toNanos(period) / permits;
+        if (intervalNs <= 0 || intervalNs > Deadline.MAX_BUDGET_NS / burst) {
+            throw new IllegalArgumentException(
+                    "Rate is out of range: " + permits + " per " + period + " " + periodUnit);
+        }
+
+        this.chronometer = chronometer;
+        this.intervalNs = intervalNs;
+        this.burst = burst;
+        this.burstNs = intervalNs * burst;
+        this.tatNs = chronometer.getTickNs();
+    }
+
+    /**
+     * Creates rate limiter with the full bucket
+     *
+     * @param chronometer Time source
+     * @param permitsPerSecond Number of permits per second
+     * @param burst Maximal number of permits that could be acquired at once after idle time
+     * @return Rate limiter
+     */
+    public static RateLimiter perSecond(Chronometer chronometer, long permitsPerSecond, int burst) {
+        return new RateLimiter(chronometer, permitsPerSecond, 1, TimeUnit.SECONDS, burst);
+    }
+
+    /**
+     * Acquires one permit if it's available now
+     *
+     * @return True if the permit is acquired
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires permits if all of them are available now
+     *
+     * @param permits Number of permits, up to the burst
+     * @return True if the permits are acquired
+     */
+    public boolean tryAcquire(int permits) {
+        return reserve(permits, 0) == 0;
+    }
+
+    /**
+     * Acquires permits if they become available within the timeout, sleeping until then
+     *
+     * @param permits Number of permits, up to the burst
+     * @param timeout Maximal time to wait
+     * @param timeoutUnit Time unit for timeout
+     * @return True if the permits are acquired
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting, the permits stay acquired
+     */
+    public boolean tryAcquire(int permits, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
+        long waitNs = reserve(permits, Math.max(0, timeoutUnit.toNanos(timeout)));
+        if (waitNs < 0) {
+            return false;
+        }
+
+        if (waitNs > 0) {
+            chronometer.sleep(waitNs, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Acquires one permit, sleeping until it's available
+     *
+     * @return Time spent waiting in nanoseconds
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting, the permit stays acquired
+     */
+    public long acquire() throws InterruptedException {
+        return acquire(1);
+    }
+
+    /**
+     * Acquires permits, sleeping until they are available. Permits are reserved before the sleep, so later callers
+     * wait after this one.
+     *
+     * @param permits Number of permits, up to the burst
+     * @return Time spent waiting in nanoseconds
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting, the permits stay acquired
+     */
+    public long acquire(int permits) throws InterruptedException {
+        long waitNs = reserve(permits, Long.MAX_VALUE);
+
+        if (waitNs > 0) {
+            chronometer.sleep(waitNs, TimeUnit.NANOSECONDS);
+        }
+        return waitNs;
+    }
+
+    /**
+     * Moves the TAT forward if the permits are available within the maximal wait
+     *
+     * @return Time to wait for the permits in nanoseconds, or -1 if the wait is too long and nothing is reserved
+     */
+    private long reserve(int permits, long maxWaitNs) {
+        if (permits <= 0 || permits > burst) {
+            throw new IllegalArgumentException("Permits are out of range [1.." + burst + "]: " + permits);
+        }
+
+        long costNs = intervalNs * permits;
+
+        while (true) {
+            long nowNs = chronometer.getTickNs();
+            long tatNs = this.tatNs;
+
+            // the bucket is full when the TAT is in the past, and idle time isn't accumulated beyond the burst
+            long startNs = tatNs - nowNs > 0 ? tatNs : nowNs;
+            long nextTatNs = startNs + costNs;
+            long waitNs = nextTatNs - nowNs - burstNs;
+
+            if (waitNs > maxWaitNs) {
+                return -1;
+            }
+
+            if (TAT.compareAndSet(this, tatNs, nextTatNs)) {
+                return Math.max(0, waitNs);
+            }
+        }
+    }
+
+    /**
+     * Number of permits that could be acquired now without waiting
+     *
+     * @return Available permits, from zero to the burst
+     */
+    public int getAvailablePermits() {
+        long aheadNs = tatNs - chronometer.getTickNs();
+        if (aheadNs <= 0) {
+            return burst;
+        }
+
+        return (int) Math.max(0, (burstNs - aheadNs) / intervalNs);
+    }
+
+    /**
+     * Interval between permits at the sustained rate
+     *
+     * @param timeUnit Time unit for result
+     * @return Emission interval
+     */
+    public long getInterval(TimeUnit timeUnit) {
+        return timeUnit.convert(intervalNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Maximal number of permits that could be acquired at once
+     *
+     * @return Burst
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RateLimiter(%d ns interval, %d burst, %d available)",
+                intervalNs, burst, getAvailablePermits());
+    }
+
+}
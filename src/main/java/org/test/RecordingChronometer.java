@@ -0,0 +1,263 @@
+package org.test;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Decorator that records every time value read from another chronometer into a memory-mapped log, so the same
+ * sequence of values could be returned later by {@link ReplayingChronometer} to reproduce an incident.</p>
+ *
+ * <p>Each record holds the kind of the read (which accessor has been called), the thread id and the value as a
+ * difference with the previous value of the same kind in the same thread. Numbers are written as variable-length
+ * integers, so a typical record takes 4-6 bytes. Space for a record is reserved with a single atomic addition, so
+ * readers never block each other. When the log is full the records are dropped and counted.</p>
+ *
+ * <p>Other accessors of {@link Chronometer} are derived from the recorded ones by default methods, so they are
+ * replayed as well. The size of the log is written into its header on {@link RecordingChronometer#close()} after
+ * all reserved records are finished, so only a closed log is guaranteed to be consistent. The log of a crashed
+ * process is read on a best-effort basis till the first record with the zero kind. The kind byte is written after
+ * the rest of the record, but plain stores to the mapped buffer may become visible in any order, so the last records
+ * of such a log may be corrupted.</p>
+ */
+public final class RecordingChronometer implements Chronometer, AutoCloseable {
+
+    static final int MAGIC = 0x43484c47;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int END_OFFSET = 8;
+
+    static final int HEADER_SIZE = 16;
+
+    static final byte KIND_TICK_NS = 1;
+
+    static final byte KIND_TIME_MS = 2;
+
+    static final byte KIND_EPOCH_MICROS = 3;
+
+    static final byte KIND_EPOCH_NANOS = 4;
+
+    static final byte KIND_INSTANT = 5;
+
+    static final int KIND_COUNT = 6;
+
+    // kind byte and two 10-byte varints
+    private static final int MAX_RECORD_SIZE = 21;
+
+    private final Chronometer delegate;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private final AtomicLong position = new AtomicLong(HEADER_SIZE);
+
+    private final LongAdder dropped = new LongAdder();
+
+    // bytes of the reserved space below the capacity that have been filled or given up
+    private final LongAdder completed = new LongAdder();
+
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    private volatile boolean closed;
+
+    private volatile long closedSize;
+
+    /**
+     * Constructs recording chronometer. The file is created or truncated.
+     *
+     * @param delegate Source of the time values
+     * @param path Log file
+     * @param capacity Maximal size of the log file in bytes
+     * @throws IOException Thrown if the file can't be mapped
+     */
+    public RecordingChronometer(Chronometer delegate, Path path, int capacity) throws IOException {
+        if (capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity is too small: " + capacity);
+        }
+
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, FORMAT_VERSION);
+        this.buffer.putLong(END_OFFSET, 0);
+    }
+
+    @Override
+    public long getTickNs() {
+        return record(KIND_TICK_NS, delegate.getTickNs());
+    }
+
+    @Override
+    public long getTimeMs() {
+        return record(KIND_TIME_MS, delegate.getTimeMs());
+    }
+
+    @Override
+    public long getEpochMicros() {
+        return record(KIND_EPOCH_MICROS, delegate.getEpochMicros());
+    }
+
+    @Override
+    public long getEpochNanos() {
+        return record(KIND_EPOCH_NANOS, delegate.getEpochNanos());
+    }
+
+    @Override
+    public Instant getInstant() {
+        Instant instant = delegate.getInstant();
+        record(KIND_INSTANT, instant.getEpochSecond() * NS_IN_SEC + instant.getNano());
+        return instant;
+    }
+
+    @Override
+    public void sleep(long pauseMs) throws InterruptedException {
+        delegate.sleep(pauseMs);
+    }
+
+    @Override
+    public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
+        delegate.sleep(pause, pauseUnit);
+    }
+
+    private long record(byte kind, long value) {
+        if (closed) {
+            return value;
+        }
+
+        Encoder encoder = encoders.get();
+        byte[] bytes = encoder.bytes;
+
+        int length = 0;
+        bytes[length++] = kind;
+        length = writeVarLong(bytes, length, encoder.threadId);
+        length = writeVarLong(bytes, length, zigZag(value - encoder.previous[kind]));
+
+        long offset = position.getAndAdd(length);
+        if (offset + length > capacity) {
+            // the log is full or closed, all later records are dropped as well
+            if (offset < capacity) {
+                dropped.increment();
+                completed.add(capacity - offset);
+            } else if (!closed) {
+                dropped.increment();
+            }
+            return value;
+        }
+
+        // the space is reserved by this thread only, so absolute puts don't interfere with other threads
+        int index = (int) offset;
+        for (int i = 1; i < length; i++) {
+            buffer.put(index + i, bytes[i]);
+        }
+
+        // the kind byte marks the record as written, though the order is guaranteed for a closed log only
+        buffer.put(index, kind);
+
+        completed.add(length);
+        encoder.previous[kind] = value;
+        return value;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarLong(byte[] bytes, int index, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        bytes[index++] = (byte) value;
+        return index;
+    }
+
+    /**
+     * Source of the time values
+     *
+     * @return Delegate chronometer
+     */
+    public Chronometer getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Number of bytes used by the log including the header. It includes space reserved by records that are being
+     * written right now.
+     *
+     * @return Size in bytes
+     */
+    public long getSize() {
+        return closed ? closedSize : Math.min(position.get(), capacity);
+    }
+
+    /**
+     * Number of records that didn't fit into the log
+     *
+     * @return Number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops recording, waits for records that are being written, writes the size of the log into its header and
+     * flushes the log to the disk
+     *
+     * @throws IOException Thrown if the log file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        // no space could be reserved after that, records of threads that have reserved the space just before
+        // the close are finished in a few steps
+        long end = Math.min(position.getAndAdd(capacity), capacity);
+        while (completed.sum() < end - HEADER_SIZE) {
+            Thread.yield();
+        }
+
+        closedSize = end;
+        buffer.putLong(END_OFFSET, end);
+        buffer.force();
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RECORDING(%d bytes, %d dropped): %s", getSize(), getDroppedCount(), delegate);
+    }
+
+    private static final class Encoder {
+
+        private final byte[] bytes = new byte[MAX_RECORD_SIZE];
+
+        private final long[] previous = new long[KIND_COUNT];
+
+        private final long threadId = Thread.currentThread().getId();
+
+    }
+
+}
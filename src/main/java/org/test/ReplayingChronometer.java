@@ -0,0 +1,192 @@
+package org.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Chronometer that returns time values recorded by {@link RecordingChronometer} in the same order, so a time
+ * dependent incident could be reproduced deterministically.</p>
+ *
+ * <p>Values are returned in the order of the log regardless of the calling thread. Each call must match the kind of
+ * the next record, otherwise {@link IllegalStateException} is thrown as the replayed code has diverged from the
+ * recorded one. Sleeping returns immediately as the time is taken from the log anyway.</p>
+ */
+public final class ReplayingChronometer implements Chronometer {
+
+    private static final String[] KIND_NAMES = {
+        "none", "getTickNs", "getTimeMs", "getEpochMicros", "getEpochNanos", "getInstant"
+    };
+
+    private final ByteBuffer buffer;
+
+    private final int end;
+
+    private final Map<Long, long[]> previous = new HashMap<>();
+
+    private final Object lock = new Object();
+
+    private long lastThreadId;
+
+    private long count;
+
+    /**
+     * Constructs replaying chronometer over a log that has been read into the buffer
+     *
+     * @param buffer Log content
+     */
+    public ReplayingChronometer(ByteBuffer buffer) {
+        if (buffer.limit() < RecordingChronometer.HEADER_SIZE
+                || buffer.getInt(0) != RecordingChronometer.MAGIC) {
+            throw new IllegalArgumentException("Not a chronometer log");
+        }
+        if (buffer.getInt(4) != RecordingChronometer.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported log version: " + buffer.getInt(4));
+        }
+
+        long end = buffer.getLong(RecordingChronometer.END_OFFSET);
+
+        this.buffer = buffer.duplicate();
+        this.buffer.position(RecordingChronometer.HEADER_SIZE);
+        this.end = end > 0 ? (int) Math.min(end, buffer.limit()) : buffer.limit();
+    }
+
+    /**
+     * Opens the log file written by {@link RecordingChronometer}
+     *
+     * @param path Log file
+     * @return Replaying chronometer
+     * @throws IOException Thrown if the file can't be mapped
+     */
+    public static ReplayingChronometer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ReplayingChronometer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public long getTickNs() {
+        return next(RecordingChronometer.KIND_TICK_NS);
+    }
+
+    @Override
+    public long getTimeMs() {
+        return next(RecordingChronometer.KIND_TIME_MS);
+    }
+
+    @Override
+    public long getEpochMicros() {
+        return next(RecordingChronometer.KIND_EPOCH_MICROS);
+    }
+
+    @Override
+    public long getEpochNanos() {
+        return next(RecordingChronometer.KIND_EPOCH_NANOS);
+    }
+
+    @Override
+    public Instant getInstant() {
+        long epochNs = next(RecordingChronometer.KIND_INSTANT);
+        return Instant.ofEpochSecond(Math.floorDiv(epochNs, NS_IN_SEC), Math.floorMod(epochNs, NS_IN_SEC));
+    }
+
+    @Override
+    public void sleep(long pauseMs) throws InterruptedException {
+        sleep(pauseMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private long next(byte kind) {
+        synchronized (lock) {
+            int recordKind = buffer.position() < end ? buffer.get(buffer.position()) : 0;
+            if (recordKind == 0) {
+                throw new IllegalStateException("Replay log is exhausted after " + count + " records");
+            }
+            if (recordKind != kind) {
+                throw new IllegalStateException(String.format("Replay has diverged at record %d: %s expected, "
+                        + "%s called", count, kindName(recordKind), kindName(kind)));
+            }
+
+            buffer.get();
+            long threadId = readVarLong();
+            long delta = RecordingChronometer.unZigZag(readVarLong());
+
+            long[] values = previous.computeIfAbsent(threadId, id -> new long[RecordingChronometer.KIND_COUNT]);
+            long value = values[kind] + delta;
+            values[kind] = value;
+
+            lastThreadId = threadId;
+            count++;
+            return value;
+        }
+    }
+
+    private long readVarLong() {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("Malformed replay log at offset " + buffer.position());
+    }
+
+    private static String kindName(int kind) {
+        return kind > 0 && kind < KIND_NAMES.length ? KIND_NAMES[kind] : "kind " + kind;
+    }
+
+    /**
+     * Checks if there are records to replay
+     *
+     * @return True if the next call will return a recorded value
+     */
+    public boolean hasRemaining() {
+        synchronized (lock) {
+            return buffer.position() < end && buffer.get(buffer.position()) != 0;
+        }
+    }
+
+    /**
+     * Id of the thread that has read the last replayed value in the recorded process
+     *
+     * @return Thread id
+     */
+    public long getLastThreadId() {
+        synchronized (lock) {
+            return lastThreadId;
+        }
+    }
+
+    /**
+     * Number of replayed records
+     *
+     * @return Number of records
+     */
+    public long getCount() {
+        synchronized (lock) {
+            return count;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("REPLAYING(%d records)", getCount());
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.test;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * <p>Sequence lock over a version counter: a writer makes the version odd with CAS before the change and even
+ * again after it, readers retry only if the version has been changed while they were reading. Writers are expected
+ * to hold the lock for a few plain stores only.</p>
+ *
+ * <p>There is a Java 21 version of the class with {@code VarHandle} access and spin-wait hints in the
+ * multi-release JAR.</p>
+ */
+final class SequenceLock {
+
+    private static final AtomicLongFieldUpdater<SequenceLock> VERSION =
+            AtomicLongFieldUpdater.newUpdater(SequenceLock.class, "version");
+
+    // odd while the state is being changed
+    private volatile long version;
+
+    /**
+     * Waits for the current writer and starts reading
+     *
+     * @return Version to validate after reading
+     */
+    long beginRead() {
+        long version;
+        while (((version = this.version) & 1) != 0) {
+            // a writer is changing the state right now
+            Thread.yield();
+        }
+        return version;
+    }
+
+    /**
+     * Checks that the state hasn't been changed since {@link SequenceLock#beginRead()}
+     *
+     * @param version Version returned by {@link SequenceLock#beginRead()}
+     * @return True if the values read are consistent
+     */
+    boolean validate(long version) {
+        return version == this.version;
+    }
+
+    void lock() {
+        while (true) {
+            long version = this.version;
+            if ((version & 1) == 0 && VERSION.compareAndSet(this, version, version + 1)) {
+                return;
+            }
+
+            Thread.yield();
+        }
+    }
+
+    void unlock() {
+        version = version + 1;
+    }
+
+}
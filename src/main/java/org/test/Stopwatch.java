@@ -0,0 +1,329 @@
+package org.test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Reusable stopwatch for nested measurements of request phases. Started phases form a stack, each
+ * {@link Stopwatch#stop()} adds the elapsed time to the totals of the phase and to the children time of the
+ * enclosing phase. The result is a flat breakdown by phase names with count, total and self (without nested
+ * phases) time.</p>
+ *
+ * <p>All state is kept in primitive arrays that grow only when a new phase name or a deeper nesting appears, so
+ * measurements don't allocate. Elapsed time is calculated with {@link Chronometer#getElapsed(long, long, TimeUnit)}
+ * rules for jitter and overflow, and the sums saturate at {@link Long#MAX_VALUE} instead of wrapping.</p>
+ *
+ * <p>Instances are not thread-safe. Use {@link Stopwatch#current(Chronometer)} to get the instance of the current
+ * thread, and {@link Stopwatch#reset()} it at the start of each request.</p>
+ */
+public final class Stopwatch {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final ThreadLocal<Stopwatch> CURRENT = new ThreadLocal<>();
+
+    private final Chronometer chronometer;
+
+    private final Map<String, Integer> phaseIds = new HashMap<>();
+
+    private String[] phaseNames = new String[INITIAL_CAPACITY];
+
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    private long[] totalNs = new long[INITIAL_CAPACITY];
+
+    private long[] selfNs = new long[INITIAL_CAPACITY];
+
+    private int[] stackPhases = new int[INITIAL_CAPACITY];
+
+    private long[] stackStartNs = new long[INITIAL_CAPACITY];
+
+    private long[] stackChildrenNs = new long[INITIAL_CAPACITY];
+
+    private int depth;
+
+    /**
+     * Constructs stopwatch
+     *
+     * @param chronometer Time source
+     */
+    public Stopwatch(Chronometer chronometer) {
+        this.chronometer = chronometer;
+    }
+
+    /**
+     * Returns stopwatch of the current thread. A new stopwatch is created if the thread doesn't have one yet or it
+     * uses another chronometer.
+     *
+     * @param chronometer Time source
+     * @return Stopwatch of the current thread
+     */
+    public static Stopwatch current(Chronometer chronometer) {
+        Stopwatch stopwatch = CURRENT.get();
+
+        if (stopwatch == null || stopwatch.chronometer != chronometer) {
+            stopwatch = new Stopwatch(chronometer);
+            CURRENT.set(stopwatch);
+        }
+
+        return stopwatch;
+    }
+
+    /**
+     * Returns identifier of the phase, registering the phase name on the first call. Identifiers are stable for
+     * the stopwatch instance and allow to skip the name lookup on hot paths.
+     *
+     * @param name Phase name
+     * @return Phase identifier
+     */
+    public int phase(String name) {
+        Integer id = phaseIds.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = phaseIds.size();
+        if (newId == phaseNames.length) {
+            int capacity = newId * 2;
+            phaseNames = Arrays.copyOf(phaseNames, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            totalNs = Arrays.copyOf(totalNs, capacity);
+            selfNs = Arrays.copyOf(selfNs, capacity);
+        }
+
+        phaseNames[newId] = name;
+        phaseIds.put(name, newId);
+        return newId;
+    }
+
+    /**
+     * Starts the phase nested into the currently running one
+     *
+     * @param name Phase name
+     * @return This stopwatch
+     */
+    public Stopwatch start(String name) {
+        return start(phase(name));
+    }
+
+    /**
+     * Starts the phase nested into the currently running one
+     *
+     * @param phaseId Phase identifier
+     * @return This stopwatch
+     * @see Stopwatch#phase(String)
+     */
+    public Stopwatch start(int phaseId) {
+        push(phaseId, chronometer.getTickNs());
+        return this;
+    }
+
+    /**
+     * Stops the currently running phase
+     *
+     * @return This stopwatch
+     */
+    public Stopwatch stop() {
+        pop(chronometer.getTickNs());
+        return this;
+    }
+
+    /**
+     * Stops the currently running phase and starts the next one on the same nesting level at the same moment
+     *
+     * @param name Phase name
+     * @return This stopwatch
+     */
+    public Stopwatch lap(String name) {
+        return lap(phase(name));
+    }
+
+    /**
+     * Stops the currently running phase and starts the next one on the same nesting level at the same moment
+     *
+     * @param phaseId Phase identifier
+     * @return This stopwatch
+     * @see Stopwatch#phase(String)
+     */
+    public Stopwatch lap(int phaseId) {
+        long tickNs = chronometer.getTickNs();
+        pop(tickNs);
+        push(phaseId, tickNs);
+        return this;
+    }
+
+    /**
+     * Stops all running phases
+     *
+     * @return This stopwatch
+     */
+    public Stopwatch stopAll() {
+        long tickNs = chronometer.getTickNs();
+        while (depth > 0) {
+            pop(tickNs);
+        }
+        return this;
+    }
+
+    private void push(int phaseId, long tickNs) {
+        if (phaseId < 0 || phaseId >= phaseIds.size()) {
+            throw new IllegalArgumentException("Unknown phase: " + phaseId);
+        }
+
+        if (depth == stackPhases.length) {
+            int capacity = depth * 2;
+            stackPhases = Arrays.copyOf(stackPhases, capacity);
+            stackStartNs = Arrays.copyOf(stackStartNs, capacity);
+            stackChildrenNs = Arrays.copyOf(stackChildrenNs, capacity);
+        }
+
+        stackPhases[depth] = phaseId;
+        stackStartNs[depth] = tickNs;
+        stackChildrenNs[depth] = 0;
+        depth++;
+    }
+
+    private void pop(long tickNs) {
+        if (depth == 0) {
+            throw new IllegalStateException("No running phase");
+        }
+
+        depth--;
+
+        int phaseId = stackPhases[depth];
+        long elapsedNs = chronometer.getElapsed(stackStartNs[depth], tickNs, TimeUnit.NANOSECONDS);
+
+        counts[phaseId]++;
+        totalNs[phaseId] = addSaturated(totalNs[phaseId], elapsedNs);
+        selfNs[phaseId] = addSaturated(selfNs[phaseId], Math.max(0, elapsedNs - stackChildrenNs[depth]));
+
+        if (depth > 0) {
+            stackChildrenNs[depth - 1] = addSaturated(stackChildrenNs[depth - 1], elapsedNs);
+        }
+    }
+
+    private static long addSaturated(long sumNs, long valueNs) {
+        // both values are non-negative, elapsed time is Long.MAX_VALUE on overflow
+        long resultNs = sumNs + valueNs;
+        return resultNs < 0 ? Long.MAX_VALUE : resultNs;
+    }
+
+    /**
+     * Elapsed time of the currently running phase
+     *
+     * @return Elapsed time in nanoseconds
+     */
+    public long getElapsedNs() {
+        if (depth == 0) {
+            throw new IllegalStateException("No running phase");
+        }
+
+        return chronometer.getElapsedNs(stackStartNs[depth - 1]);
+    }
+
+    /**
+     * Nesting level of the currently running phase
+     *
+     * @return Number of running phases
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Number of completed measurements of the phase
+     *
+     * @param name Phase name
+     * @return Count
+     */
+    public long getCount(String name) {
+        Integer id = phaseIds.get(name);
+        return id != null ? counts[id] : 0;
+    }
+
+    /**
+     * Total time of the phase including nested phases
+     *
+     * @param name Phase name
+     * @return Time in nanoseconds
+     */
+    public long getTotalNs(String name) {
+        Integer id = phaseIds.get(name);
+        return id != null ? totalNs[id] : 0;
+    }
+
+    /**
+     * Own time of the phase excluding nested phases
+     *
+     * @param name Phase name
+     * @return Time in nanoseconds
+     */
+    public long getSelfNs(String name) {
+        Integer id = phaseIds.get(name);
+        return id != null ? selfNs[id] : 0;
+    }
+
+    /**
+     * Passes the breakdown of all measured phases to the visitor in the order of phase registration
+     *
+     * @param visitor Visitor
+     */
+    public void export(PhaseVisitor visitor) {
+        int phaseCount = phaseIds.size();
+        for (int id = 0; id < phaseCount; id++) {
+            if (counts[id] > 0) {
+                visitor.visit(phaseNames[id], counts[id], totalNs[id], selfNs[id]);
+            }
+        }
+    }
+
+    /**
+     * Clears all measurements and running phases. Registered phase identifiers stay valid.
+     *
+     * @return This stopwatch
+     */
+    public Stopwatch reset() {
+        int phaseCount = phaseIds.size();
+        Arrays.fill(counts, 0, phaseCount, 0);
+        Arrays.fill(totalNs, 0, phaseCount, 0);
+        Arrays.fill(selfNs, 0, phaseCount, 0);
+        depth = 0;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        export((phase, count, totalNs, selfNs) -> {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(phase).append(": ").append(count).append(" / ").append(totalNs).append(" ns / ")
+                    .append(selfNs).append(" ns");
+        });
+
+        return sb.toString();
+    }
+
+    /**
+     * Consumer of the phase breakdown
+     */
+    @FunctionalInterface
+    public interface PhaseVisitor {
+
+        /**
+         * Called for each measured phase
+         *
+         * @param phase Phase name
+         * @param count Number of completed measurements
+         * @param totalNs Total time including nested phases
+         * @param selfNs Own time excluding nested phases
+         */
+        void visit(String phase, long count, long totalNs, long selfNs);
+
+    }
+
+}
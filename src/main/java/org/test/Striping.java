@@ -0,0 +1,40 @@
+package org.test;
+
+/**
+ * Helpers to spread concurrent updates over several cells to avoid contention between threads
+ */
+final class Striping {
+
+    private static final int MAX_STRIPES = 64;
+
+    private Striping() {
+        // utility class
+    }
+
+    /**
+     * Number of stripes for the current host: the number of processors rounded up to a power of two
+     *
+     * @return Power of two number of stripes
+     */
+    static int stripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+
+        int count = Integer.highestOneBit(processors);
+        return count < processors ? count << 1 : count;
+    }
+
+    /**
+     * Stable hash of the current thread to choose a stripe
+     *
+     * @return Hash value
+     */
+    static int probe() {
+        // murmur3 finalizer mixes sequential thread ids into distant stripes
+        long h = Thread.currentThread().getId();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+}
@@ -10,6 +10,34 @@ public final class SystemChronometer implements Chronometer {
 
     public static final SystemChronometer INSTANCE = new SystemChronometer();
 
+    private final PreciseSleeper sleeper;
+
+    /**
+     * Constructs chronometer with default sleeping based on {@link Thread#sleep(long, int)}
+     */
+    public SystemChronometer() {
+        this(null);
+    }
+
+    /**
+     * Constructs chronometer with precise sleeping
+     *
+     * @param sleeper Sleep strategy, or null for {@link Thread#sleep(long, int)}
+     */
+    public SystemChronometer(PreciseSleeper sleeper) {
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Creates chronometer with precise sleeping and default thresholds
+     *
+     * @return System chronometer
+     * @see PreciseSleeper
+     */
+    public static SystemChronometer createPrecise() {
+        return new SystemChronometer(new PreciseSleeper());
+    }
+
     @Override
     public long getTickNs() {
         return System.nanoTime();
@@ -27,22 +55,37 @@ public final class SystemChronometer implements Chronometer {
 
     @Override
     public void sleep(long pauseMs) throws InterruptedException {
+        if (sleeper != null) {
+            sleeper.sleep(this, TimeUnit.MILLISECONDS.toNanos(pauseMs));
+            return;
+        }
+
         Thread.sleep(pauseMs);
     }
 
     @Override
     public void sleep(long pause, TimeUnit pauseUnit) throws InterruptedException {
-        long pauseMs = pauseUnit.toMillis(pause);
+        if (sleeper != null) {
+            sleeper.sleep(this, pauseUnit.toNanos(pause));
+            return;
+        }
 
         if (pauseUnit.compareTo(TimeUnit.MILLISECONDS) < 0) {
-            long pauseNsPart = pauseUnit.toNanos(pause) - TimeUnit.MILLISECONDS.toNanos(pauseMs);
-
-            Thread.sleep(pauseMs, (int) pauseNsPart);
+            Pauses.sleep(pauseUnit.toNanos(pause));
         } else {
-            Thread.sleep(pauseMs);
+            Thread.sleep(pauseUnit.toMillis(pause));
         }
     }
 
+    /**
+     * Precise sleep strategy of this chronometer
+     *
+     * @return Sleep strategy, or null if {@link Thread#sleep(long, int)} is used
+     */
+    public PreciseSleeper getSleeper() {
+        return sleeper;
+    }
+
     /**
      * Utility method chooses default chronometer instance if no any other chronometer is provided
      * @param chronometer Some provided chronometer
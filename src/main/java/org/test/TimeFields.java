@@ -0,0 +1,258 @@
+package org.test;
+
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Lightweight replacement of {@link Calendar} for reading date and time fields of a moment in some timezone.
+ * Fields are computed from epoch milliseconds with plain epoch-day arithmetic. Date and time fields are kept
+ * for the current second, so updating the view within the same second just changes the millisecond field.</p>
+ *
+ * <p>Instances are mutable and thread-confined. Use {@link Chronometer#fields(ZoneId)} to get the instance owned
+ * by the current thread, and don't pass it to other threads or keep it between calls.</p>
+ *
+ * @see Chronometer#fields(ZoneId)
+ */
+public final class TimeFields {
+
+    private static final long SEC_IN_DAY = Chronometer.MS_IN_DAY / Chronometer.MS_IN_SEC;
+
+    private static final int SEC_IN_HOUR = 3_600;
+
+    private static final int SEC_IN_MINUTE = 60;
+
+    private static final int DAYS_IN_400_YEARS = 146_097;
+
+    private static final long DAYS_0000_TO_1970 = 719_468;
+
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static final ThreadLocal<Map<ZoneId, TimeFields>> CURRENT = ThreadLocal.withInitial(HashMap::new);
+
+    private final ZoneId zoneId;
+
+    private long timeMs;
+
+    private long epochSec = Long.MIN_VALUE;
+
+    private int offsetSec;
+
+    private long epochDay;
+
+    private int year;
+
+    private int month;
+
+    private int dayOfMonth;
+
+    private int hour;
+
+    private int minute;
+
+    private int second;
+
+    private int millis;
+
+    /**
+     * Constructs field view for the timezone
+     *
+     * @param zoneId Timezone
+     */
+    public TimeFields(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * Returns the view owned by the current thread
+     *
+     * @param zoneId Timezone
+     * @return Field view
+     */
+    static TimeFields current(ZoneId zoneId) {
+        Map<ZoneId, TimeFields> views = CURRENT.get();
+
+        TimeFields fields = views.get(zoneId);
+        if (fields == null) {
+            fields = new TimeFields(zoneId);
+            views.put(zoneId, fields);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Recomputes fields for the moment
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @return This view
+     */
+    public TimeFields update(long timeMs) {
+        this.timeMs = timeMs;
+        this.millis = (int) Math.floorMod(timeMs, Chronometer.MS_IN_SEC);
+
+        long epochSec = Math.floorDiv(timeMs, Chronometer.MS_IN_SEC);
+        if (epochSec != this.epochSec) {
+            this.epochSec = epochSec;
+            this.offsetSec = ZoneOffsetCache.getOffsetSeconds(zoneId, timeMs);
+
+            long localSec = epochSec + offsetSec;
+            int secOfDay = (int) Math.floorMod(localSec, SEC_IN_DAY);
+
+            this.epochDay = Math.floorDiv(localSec, SEC_IN_DAY);
+            this.hour = secOfDay / SEC_IN_HOUR;
+            this.minute = secOfDay / SEC_IN_MINUTE % SEC_IN_MINUTE;
+            this.second = secOfDay % SEC_IN_MINUTE;
+
+            computeDate(epochDay);
+        }
+
+        return this;
+    }
+
+    private void computeDate(long epochDay) {
+        // civil calendar from days, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_IN_400_YEARS);
+        int doe = (int) (z - era * DAYS_IN_400_YEARS);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+
+        this.dayOfMonth = doy - (153 * mp + 2) / 5 + 1;
+        this.month = mp < 10 ? mp + 3 : mp - 9;
+        this.year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+    }
+
+    /**
+     * Timezone of the view
+     *
+     * @return Timezone
+     */
+    public ZoneId zoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Moment of the view
+     *
+     * @return Wall clock time in milliseconds since <em>epoch</em>
+     */
+    public long timeMs() {
+        return timeMs;
+    }
+
+    /**
+     * Offset of the timezone at the moment
+     *
+     * @return Offset in seconds
+     */
+    public int offsetSeconds() {
+        return offsetSec;
+    }
+
+    /**
+     * Local day
+     *
+     * @return Days since local <em>epoch</em>
+     */
+    public long epochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Proleptic year
+     *
+     * @return Year
+     */
+    public int year() {
+        return year;
+    }
+
+    /**
+     * Month of year, from 1 (January) to 12 (December). Note that {@link Calendar#MONTH} is zero-based.
+     *
+     * @return Month
+     */
+    public int month() {
+        return month;
+    }
+
+    /**
+     * Day of month, from 1 to 31
+     *
+     * @return Day of month
+     */
+    public int dayOfMonth() {
+        return dayOfMonth;
+    }
+
+    /**
+     * Day of year, from 1 to 366
+     *
+     * @return Day of year
+     */
+    public int dayOfYear() {
+        int leap = month > 2 && isLeapYear(year) ? 1 : 0;
+        return DAYS_BEFORE_MONTH[month - 1] + leap + dayOfMonth;
+    }
+
+    /**
+     * ISO day of week, from 1 (Monday) to 7 (Sunday)
+     *
+     * @return Day of week
+     * @see java.time.DayOfWeek#getValue()
+     */
+    public int dayOfWeek() {
+        // 1970-01-01 was Thursday
+        return (int) Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * Hour of day, from 0 to 23
+     *
+     * @return Hour
+     */
+    public int hour() {
+        return hour;
+    }
+
+    /**
+     * Minute of hour, from 0 to 59
+     *
+     * @return Minute
+     */
+    public int minute() {
+        return minute;
+    }
+
+    /**
+     * Second of minute, from 0 to 59
+     *
+     * @return Second
+     */
+    public int second() {
+        return second;
+    }
+
+    /**
+     * Millisecond of second, from 0 to 999
+     *
+     * @return Millisecond
+     */
+    public int millis() {
+        return millis;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%04d-%02d-%02d %02d:%02d:%02d.%03d %s",
+                year, month, dayOfMonth, hour, minute, second, millis, zoneId);
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.test;
+
+/**
+ * <p>Mutable holder for a pair of <em>wall clock</em> and <em>tick</em> time values read at the same moment.</p>
+ *
+ * <p>Holder is supposed to be allocated once and reused by the owning thread to avoid garbage on hot paths.
+ * Instances are not thread-safe.</p>
+ *
+ * @see Chronometer#getSample(TimeSample)
+ */
+public final class TimeSample {
+
+    private long timeMs;
+
+    private long tickNs;
+
+    /**
+     * Set both values of the sample
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @param tickNs Tick time in nanoseconds
+     * @return This sample
+     */
+    public TimeSample set(long timeMs, long tickNs) {
+        this.timeMs = timeMs;
+        this.tickNs = tickNs;
+        return this;
+    }
+
+    /**
+     * Sampled <em>wall clock</em> time
+     *
+     * @return Wall clock time in milliseconds since <em>epoch</em>
+     */
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    /**
+     * Sampled <em>tick</em> time
+     *
+     * @return Tick time in nanoseconds
+     */
+    public long getTickNs() {
+        return tickNs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d / %d", timeMs, tickNs);
+    }
+
+}
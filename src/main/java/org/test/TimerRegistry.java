@@ -0,0 +1,319 @@
+package org.test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * <p>Registry of named timers that accumulate count, total and maximal time of operations. Timers are measured with
+ * {@link Chronometer#getTickNs()}, so the registry works with {@link MockChronometer} for deterministic tests.</p>
+ *
+ * <p>Each timer starts with a single cell and, like {@link java.util.concurrent.atomic.LongAdder}, switches to
+ * striped cells on the first contention between threads. Cells of different stripes are padded to different cache
+ * lines. Lookup of an existing timer is a lock-free map read, so cache the timer in a field when possible.</p>
+ *
+ * <p>{@link Long#MAX_VALUE}, which {@link Chronometer#getElapsedNs(long)} returns on overflow, is not a measurement
+ * and is dropped by {@link Timer#record(long)}.</p>
+ *
+ * <p>Use {@link TimerRegistry#snapshotAndReset()} for periodic interval reporting. Counters of a timer are reset
+ * one by one, so a measurement that happens concurrently with the reset may be split between intervals.</p>
+ */
+public final class TimerRegistry {
+
+    private final Chronometer chronometer;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs timer registry
+     *
+     * @param chronometer Time source
+     */
+    public TimerRegistry(Chronometer chronometer) {
+        this.chronometer = chronometer;
+    }
+
+    /**
+     * Returns the timer with the given name, creating it on the first call
+     *
+     * @param name Timer name
+     * @return Timer
+     */
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer != null) {
+            return timer;
+        }
+
+        return timers.computeIfAbsent(name, n -> new Timer(chronometer, n));
+    }
+
+    /**
+     * Aggregates counters of all timers
+     *
+     * @return Snapshots by timer names sorted by names
+     */
+    public Map<String, Timer.Snapshot> snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * Aggregates counters of all timers and resets them, so the next snapshot covers only the next interval
+     *
+     * @return Snapshots by timer names sorted by names
+     */
+    public Map<String, Timer.Snapshot> snapshotAndReset() {
+        return collect(true);
+    }
+
+    private Map<String, Timer.Snapshot> collect(boolean reset) {
+        Map<String, Timer.Snapshot> snapshots = new TreeMap<>();
+
+        for (Timer timer : timers.values()) {
+            snapshots.put(timer.name, timer.collect(reset));
+        }
+
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Number of registered timers
+     *
+     * @return Number of timers
+     */
+    public int size() {
+        return timers.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimerRegistry(%d timers)", timers.size());
+    }
+
+    /**
+     * Named accumulator of operation times
+     */
+    public static final class Timer {
+
+        private static final int COUNT = 0;
+
+        private static final int TOTAL = 1;
+
+        private static final int MAX = 2;
+
+        // keep cells of different stripes on different cache lines
+        private static final int STRIDE = 16;
+
+        private static final AtomicReferenceFieldUpdater<Timer, AtomicLongArray> STRIPES =
+                AtomicReferenceFieldUpdater.newUpdater(Timer.class, AtomicLongArray.class, "stripes");
+
+        private final Chronometer chronometer;
+
+        private final String name;
+
+        private final AtomicLongArray base = new AtomicLongArray(MAX + 1);
+
+        private volatile AtomicLongArray stripes;
+
+        private Timer(Chronometer chronometer, String name) {
+            this.chronometer = chronometer;
+            this.name = name;
+        }
+
+        /**
+         * Starts a measurement
+         *
+         * @return Tick time to pass to {@link Timer#stop(long)}
+         */
+        public long start() {
+            return chronometer.getTickNs();
+        }
+
+        /**
+         * Finishes the measurement and records the time elapsed since its start
+         *
+         * @param startTickNs Value returned by {@link Timer#start()}
+         * @return Elapsed time in nanoseconds
+         * @see Chronometer#getElapsedNs(long)
+         */
+        public long stop(long startTickNs) {
+            long elapsedNs = chronometer.getElapsedNs(startTickNs);
+            record(elapsedNs);
+            return elapsedNs;
+        }
+
+        /**
+         * Records the time of an operation
+         *
+         * @param elapsed Elapsed time
+         * @param unit Time unit for elapsed time
+         */
+        public void record(long elapsed, TimeUnit unit) {
+            record(unit.toNanos(elapsed));
+        }
+
+        /**
+         * Records the time of an operation
+         *
+         * @param elapsedNs Elapsed time in nanoseconds, negative values are counted as zero and
+         *                  {@link Long#MAX_VALUE} is dropped
+         */
+        public void record(long elapsedNs) {
+            if (elapsedNs == Long.MAX_VALUE) {
+                // overflow of the elapsed time, the value would wrap the total
+                return;
+            }
+
+            long valueNs = Math.max(0, elapsedNs);
+
+            AtomicLongArray cells = stripes;
+            if (cells == null) {
+                long count = base.get(COUNT);
+                if (base.compareAndSet(COUNT, count, count + 1)) {
+                    add(base, 0, valueNs);
+                    return;
+                }
+
+                cells = inflate();
+            }
+
+            int offset = (Striping.probe() & (cells.length() / STRIDE - 1)) * STRIDE;
+            cells.incrementAndGet(offset + COUNT);
+            add(cells, offset, valueNs);
+        }
+
+        private static void add(AtomicLongArray cells, int offset, long valueNs) {
+            cells.addAndGet(offset + TOTAL, valueNs);
+
+            long maxNs = cells.get(offset + MAX);
+            while (valueNs > maxNs && !cells.compareAndSet(offset + MAX, maxNs, valueNs)) {
+                maxNs = cells.get(offset + MAX);
+            }
+        }
+
+        private AtomicLongArray inflate() {
+            STRIPES.compareAndSet(this, null, new AtomicLongArray(Striping.stripeCount() * STRIDE));
+            return stripes;
+        }
+
+        private Snapshot collect(boolean reset) {
+            long count = reset ? base.getAndSet(COUNT, 0) : base.get(COUNT);
+            long totalNs = reset ? base.getAndSet(TOTAL, 0) : base.get(TOTAL);
+            long maxNs = reset ? base.getAndSet(MAX, 0) : base.get(MAX);
+
+            AtomicLongArray cells = stripes;
+            if (cells != null) {
+                for (int offset = 0; offset < cells.length(); offset += STRIDE) {
+                    count += reset ? cells.getAndSet(offset + COUNT, 0) : cells.get(offset + COUNT);
+                    totalNs += reset ? cells.getAndSet(offset + TOTAL, 0) : cells.get(offset + TOTAL);
+                    maxNs = Math.max(maxNs, reset ? cells.getAndSet(offset + MAX, 0) : cells.get(offset + MAX));
+                }
+            }
+
+            return new Snapshot(name, count, totalNs, maxNs);
+        }
+
+        /**
+         * Timer name
+         *
+         * @return Name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Aggregates counters of the timer
+         *
+         * @return Snapshot
+         */
+        public Snapshot snapshot() {
+            return collect(false);
+        }
+
+        @Override
+        public String toString() {
+            return snapshot().toString();
+        }
+
+        /**
+         * Immutable aggregated state of the timer
+         */
+        public static final class Snapshot {
+
+            private final String name;
+
+            private final long count;
+
+            private final long totalNs;
+
+            private final long maxNs;
+
+            private Snapshot(String name, long count, long totalNs, long maxNs) {
+                this.name = name;
+                this.count = count;
+                this.totalNs = totalNs;
+                this.maxNs = maxNs;
+            }
+
+            /**
+             * Timer name
+             *
+             * @return Name
+             */
+            public String getName() {
+                return name;
+            }
+
+            /**
+             * Number of recorded operations
+             *
+             * @return Count
+             */
+            public long getCount() {
+                return count;
+            }
+
+            /**
+             * Total time of recorded operations
+             *
+             * @return Time in nanoseconds
+             */
+            public long getTotalNs() {
+                return totalNs;
+            }
+
+            /**
+             * Maximal time of recorded operations
+             *
+             * @return Time in nanoseconds
+             */
+            public long getMaxNs() {
+                return maxNs;
+            }
+
+            /**
+             * Mean time of recorded operations
+             *
+             * @return Time in nanoseconds
+             */
+            public double getMeanNs() {
+                return count > 0 ? (double) totalNs / count : 0;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("%s: count: %d, total: %d ns, mean: %.0f ns, max: %d ns",
+                        name, count, totalNs, getMeanNs(), maxNs);
+            }
+
+        }
+
+    }
+
+}
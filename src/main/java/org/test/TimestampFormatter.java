@@ -0,0 +1,305 @@
+package org.test;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * <p>Formatter of <em>wall clock</em> time into a caller's buffer without allocation. The text of the current
+ * second (date, time and zone) is built once from {@link TimeFields} and kept as a template, so formatting of
+ * another moment within the same second copies the template and writes three digits of milliseconds.</p>
+ *
+ * <p>Instances are bound to a timezone and are mutable, so keep one instance per thread and per zone, e.g. in a
+ * {@link ThreadLocal}. The time is read from the {@link Chronometer}, so the output is controlled by
+ * {@link MockChronometer} in tests.</p>
+ */
+public final class TimestampFormatter {
+
+    private static final int MILLIS_DIGITS = 3;
+
+    private static final int INITIAL_CAPACITY = 48;
+
+    private final Chronometer chronometer;
+
+    private final ZoneId zoneId;
+
+    private final Style style;
+
+    private final TimeFields fields;
+
+    private long epochSec = Long.MIN_VALUE;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+
+    private byte[] bytes = new byte[chars.length];
+
+    private int length;
+
+    private int millisIndex;
+
+    /**
+     * Constructs formatter
+     *
+     * @param chronometer Time source
+     * @param zoneId Timezone of the text
+     * @param style Layout of the text
+     */
+    public TimestampFormatter(Chronometer chronometer, ZoneId zoneId, Style style) {
+        this.chronometer = chronometer;
+        this.zoneId = zoneId;
+        this.style = style;
+        this.fields = new TimeFields(zoneId);
+    }
+
+    /**
+     * Writes the current time
+     *
+     * @param target Buffer
+     * @param offset Index of the first character
+     * @return Number of written characters
+     */
+    public int format(char[] target, int offset) {
+        return format(chronometer.getTimeMs(), target, offset);
+    }
+
+    /**
+     * Writes the moment
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @param target Buffer
+     * @param offset Index of the first character
+     * @return Number of written characters
+     */
+    public int format(long timeMs, char[] target, int offset) {
+        int millis = update(timeMs);
+
+        System.arraycopy(chars, 0, target, offset, length);
+
+        int index = offset + millisIndex;
+        target[index] = (char) ('0' + millis / 100);
+        target[index + 1] = (char) ('0' + millis / 10 % 10);
+        target[index + 2] = (char) ('0' + millis % 10);
+
+        return length;
+    }
+
+    /**
+     * Writes the current time as ASCII bytes
+     *
+     * @param target Buffer
+     * @param offset Index of the first byte
+     * @return Number of written bytes
+     */
+    public int format(byte[] target, int offset) {
+        return format(chronometer.getTimeMs(), target, offset);
+    }
+
+    /**
+     * Writes the moment as ASCII bytes
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @param target Buffer
+     * @param offset Index of the first byte
+     * @return Number of written bytes
+     */
+    public int format(long timeMs, byte[] target, int offset) {
+        int millis = update(timeMs);
+
+        System.arraycopy(bytes, 0, target, offset, length);
+
+        int index = offset + millisIndex;
+        target[index] = (byte) ('0' + millis / 100);
+        target[index + 1] = (byte) ('0' + millis / 10 % 10);
+        target[index + 2] = (byte) ('0' + millis % 10);
+
+        return length;
+    }
+
+    /**
+     * Writes the current time as ASCII bytes at the position of the buffer and advances the position
+     *
+     * @param target Buffer
+     * @return Number of written bytes
+     */
+    public int format(ByteBuffer target) {
+        return format(chronometer.getTimeMs(), target);
+    }
+
+    /**
+     * Writes the moment as ASCII bytes at the position of the buffer and advances the position
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @param target Buffer
+     * @return Number of written bytes
+     */
+    public int format(long timeMs, ByteBuffer target) {
+        int millis = update(timeMs);
+
+        int index = target.position() + millisIndex;
+        target.put(bytes, 0, length);
+
+        target.put(index, (byte) ('0' + millis / 100));
+        target.put(index + 1, (byte) ('0' + millis / 10 % 10));
+        target.put(index + 2, (byte) ('0' + millis % 10));
+
+        return length;
+    }
+
+    /**
+     * Appends the current time
+     *
+     * @param target Builder
+     * @return The same builder
+     */
+    public StringBuilder format(StringBuilder target) {
+        return format(chronometer.getTimeMs(), target);
+    }
+
+    /**
+     * Appends the moment
+     *
+     * @param timeMs Wall clock time in milliseconds since <em>epoch</em>
+     * @param target Builder
+     * @return The same builder
+     */
+    public StringBuilder format(long timeMs, StringBuilder target) {
+        int millis = update(timeMs);
+
+        return target.append(chars, 0, millisIndex)
+                .append((char) ('0' + millis / 100))
+                .append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10))
+                .append(chars, millisIndex + MILLIS_DIGITS, length - millisIndex - MILLIS_DIGITS);
+    }
+
+    /**
+     * Formats the current time into a new string
+     *
+     * @return Text
+     */
+    public String format() {
+        return format(new StringBuilder(length)).toString();
+    }
+
+    private int update(long timeMs) {
+        long epochSec = Math.floorDiv(timeMs, Chronometer.MS_IN_SEC);
+
+        if (epochSec != this.epochSec) {
+            this.epochSec = epochSec;
+            fields.update(timeMs);
+            build();
+        }
+
+        return (int) Math.floorMod(timeMs, Chronometer.MS_IN_SEC);
+    }
+
+    private void build() {
+        StringBuilder builder = new StringBuilder(chars.length);
+
+        int year = fields.year();
+        if (year > 9999) {
+            builder.append('+').append(year);
+        } else {
+            if (year < 0) {
+                builder.append('-');
+            }
+            appendPadded(builder, Math.abs(year), 4);
+        }
+
+        builder.append('-');
+        appendPadded(builder, fields.month(), 2);
+        builder.append('-');
+        appendPadded(builder, fields.dayOfMonth(), 2);
+        builder.append(style == Style.ISO ? 'T' : ' ');
+        appendPadded(builder, fields.hour(), 2);
+        builder.append(':');
+        appendPadded(builder, fields.minute(), 2);
+        builder.append(':');
+        appendPadded(builder, fields.second(), 2);
+        builder.append('.');
+
+        millisIndex = builder.length();
+        builder.append("000");
+
+        switch (style) {
+            case TIMESTAMP:
+                break;
+            case TIMESTAMP_ZONE:
+                builder.append(' ').append(zoneId.getId());
+                break;
+            case ISO:
+                builder.append(ZoneOffset.ofTotalSeconds(fields.offsetSeconds()).getId());
+                break;
+            default:
+                throw new IllegalStateException("Unknown style: " + style);
+        }
+
+        length = builder.length();
+        if (length > chars.length) {
+            chars = new char[length];
+            bytes = new byte[length];
+        }
+
+        builder.getChars(0, length, chars, 0);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) chars[i];
+        }
+    }
+
+    private static void appendPadded(StringBuilder builder, int value, int width) {
+        for (int limit = 10, i = 1; i < width; limit *= 10, i++) {
+            if (value < limit) {
+                builder.append('0');
+            }
+        }
+
+        builder.append(value);
+    }
+
+    /**
+     * Timezone of the text
+     *
+     * @return Timezone
+     */
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Layout of the text
+     *
+     * @return Style
+     */
+    public Style getStyle() {
+        return style;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimestampFormatter(%s, %s)", style, zoneId);
+    }
+
+    /**
+     * Layout of the text
+     */
+    public enum Style {
+
+        /**
+         * Local date and time like {@code 2017-03-13 02:12:30.763}
+         */
+        TIMESTAMP,
+
+        /**
+         * Local date and time with the zone id like {@code 2017-03-13 02:12:30.763 Europe/Berlin}, the text is
+         * accepted by {@link MockChronometer#toEpochMillis(String)}
+         */
+        TIMESTAMP_ZONE,
+
+        /**
+         * ISO-8601 local date and time with the offset like {@code 2017-03-13T03:12:30.763+01:00}
+         */
+        ISO
+
+    }
+
+}
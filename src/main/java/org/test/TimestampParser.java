@@ -0,0 +1,361 @@
+package org.test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>Parser of timestamps in the {@link MockChronometer} format {@code uuuu-MM-dd HH:mm:ss.SSS z}, e.g.
+ * {@code 2017-03-13 02:12:30.763 UTC}. Fields are read from characters in place, the timezone is looked up in a
+ * small cache by comparing characters, and the offset is taken from the cached window of zone rules, so parsing of
+ * a typical timestamp creates no objects at all.</p>
+ *
+ * <p>Input that doesn't fit the fixed layout, a timezone that is seen for the first time and local times close
+ * to a transition of zone rules are handed over to {@link java.time.format.DateTimeFormatter}, so the result and
+ * the errors ({@link DateTimeParseException}) are always the same as for {@link ZonedDateTime#parse}.</p>
+ *
+ * <p>Text could be parsed from any {@link CharSequence} or from ASCII bytes of a {@link ByteBuffer}, including
+ * bulk parsing of line-separated timestamps.</p>
+ */
+public final class TimestampParser {
+
+    private static final long SEC_IN_DAY = Chronometer.MS_IN_DAY / Chronometer.MS_IN_SEC;
+
+    private static final int DAYS_IN_400_YEARS = 146_097;
+
+    private static final long DAYS_0000_TO_1970 = 719_468;
+
+    // length of "uuuu-MM-dd HH:mm:ss.SSS "
+    private static final int ZONE_START = 24;
+
+    private static final long UNPARSED = Long.MIN_VALUE;
+
+    private static final int ZONE_SLOTS = 64;
+
+    // entries are immutable, so a racy replacement of a slot is safe
+    private static final ZoneEntry[] ZONES = new ZoneEntry[ZONE_SLOTS];
+
+    private TimestampParser() {
+        // utility class
+    }
+
+    /**
+     * Parses the timestamp
+     *
+     * @param text Timestamp like {@code 2017-03-13 02:12:30.763 UTC}
+     * @return Epoch time in milliseconds
+     * @throws DateTimeParseException Thrown if the text can't be parsed
+     */
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses the timestamp from the part of the text
+     *
+     * @param text Text
+     * @param start Index of the first character of the timestamp
+     * @param end Index after the last character of the timestamp
+     * @return Epoch time in milliseconds
+     * @throws DateTimeParseException Thrown if the text can't be parsed
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        long epochMs = parseFast(text, start, end);
+        return epochMs != UNPARSED ? epochMs : parseSlow(text, start, end);
+    }
+
+    /**
+     * Parses the timestamp from ASCII bytes of the buffer. The position of the buffer isn't changed.
+     *
+     * @param buffer Buffer
+     * @param start Index of the first byte of the timestamp
+     * @param end Index after the last byte of the timestamp
+     * @return Epoch time in milliseconds
+     * @throws DateTimeParseException Thrown if the text can't be parsed
+     */
+    public static long parse(ByteBuffer buffer, int start, int end) {
+        return parse(new AsciiSequence(buffer), start, end);
+    }
+
+    /**
+     * Parses timestamps separated by line feeds. Blank lines are skipped, a carriage return at the end of a line is
+     * ignored.
+     *
+     * @param text Text
+     * @param consumer Receiver of epoch times in milliseconds in the order of the lines
+     * @return Number of parsed timestamps
+     * @throws DateTimeParseException Thrown if a line can't be parsed
+     */
+    public static int parseLines(CharSequence text, LongConsumer consumer) {
+        int count = 0;
+        int length = text.length();
+
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && text.charAt(end) != '\n') {
+                end++;
+            }
+
+            int next = end + 1;
+            if (end > start && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+
+            if (!isBlank(text, start, end)) {
+                consumer.accept(parse(text, start, end));
+                count++;
+            }
+
+            start = next;
+        }
+
+        return count;
+    }
+
+    /**
+     * Parses timestamps separated by line feeds from ASCII bytes between the position and the limit of the buffer.
+     * The position of the buffer isn't changed.
+     *
+     * @param buffer Buffer
+     * @param consumer Receiver of epoch times in milliseconds in the order of the lines
+     * @return Number of parsed timestamps
+     * @throws DateTimeParseException Thrown if a line can't be parsed
+     * @see TimestampParser#parseLines(CharSequence, LongConsumer)
+     */
+    public static int parseLines(ByteBuffer buffer, LongConsumer consumer) {
+        AsciiSequence text = new AsciiSequence(buffer.slice());
+        return parseLines(text, consumer);
+    }
+
+    private static long parseFast(CharSequence text, int start, int end) {
+        if (!isLayout(text, start, end)) {
+            return UNPARSED;
+        }
+
+        ZoneId zoneId = findZone(text, start + ZONE_START, end);
+        if (zoneId == null) {
+            return UNPARSED;
+        }
+
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = digits(text, start + 17, 2);
+        int millis = digits(text, start + 20, 3);
+
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            // let the formatter report the invalid field
+            return UNPARSED;
+        }
+
+        long localSec = epochDay(year, month, day) * SEC_IN_DAY + hour * 3_600 + minute * 60 + second;
+
+        int offsetSec = ZoneOffsetCache.getLocalOffsetSeconds(zoneId, localSec);
+        if (offsetSec == Integer.MIN_VALUE) {
+            // the local time could be in a gap or an overlap, resolve it as java.time does
+            long epochSec = ZonedDateTime.ofLocal(
+                    LocalDateTime.of(year, month, day, hour, minute, second), zoneId, null).toEpochSecond();
+
+            // warm up the window for the next timestamps
+            ZoneOffsetCache.getOffset(zoneId, epochSec);
+
+            return epochSec * Chronometer.MS_IN_SEC + millis;
+        }
+
+        return (localSec - offsetSec) * Chronometer.MS_IN_SEC + millis;
+    }
+
+    private static long parseSlow(CharSequence text, int start, int end) {
+        String moment = text.subSequence(start, end).toString();
+        ZonedDateTime t = ZonedDateTime.parse(moment, MockChronometer.TIMESTAMP_FORMATTER);
+
+        if (isLayout(text, start, end)) {
+            // the zone is resolved by the formatter, so the fast path gives the same result for its name
+            putZone(moment.substring(ZONE_START), t.getZone());
+        }
+
+        return t.toInstant().toEpochMilli();
+    }
+
+    private static boolean isLayout(CharSequence text, int start, int end) {
+        if (end - start <= ZONE_START) {
+            return false;
+        }
+
+        for (int i = 0; i < ZONE_START; i++) {
+            char c = text.charAt(start + i);
+
+            switch (i) {
+                case 4:
+                case 7:
+                    if (c != '-') {
+                        return false;
+                    }
+                    break;
+                case 10:
+                case 23:
+                    if (c != ' ') {
+                        return false;
+                    }
+                    break;
+                case 13:
+                case 16:
+                    if (c != ':') {
+                        return false;
+                    }
+                    break;
+                case 19:
+                    if (c != '.') {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (c < '0' || c > '9') {
+                        return false;
+                    }
+                    break;
+            }
+        }
+
+        return true;
+    }
+
+    private static int digits(CharSequence text, int index, int count) {
+        int value = 0;
+
+        for (int i = 0; i < count; i++) {
+            value = value * 10 + (text.charAt(index + i) - '0');
+        }
+
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        // days from civil calendar, see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+
+        return (long) era * DAYS_IN_400_YEARS + doe - DAYS_0000_TO_1970;
+    }
+
+    private static boolean isBlank(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static ZoneId findZone(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        ZoneEntry entry = ZONES[hash & (ZONE_SLOTS - 1)];
+
+        if (entry == null || entry.hash != hash || entry.name.length() != end - start) {
+            return null;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (entry.name.charAt(i - start) != text.charAt(i)) {
+                return null;
+            }
+        }
+
+        return entry.zoneId;
+    }
+
+    private static void putZone(String name, ZoneId zoneId) {
+        int hash = hash(name, 0, name.length());
+        ZONES[hash & (ZONE_SLOTS - 1)] = new ZoneEntry(name, hash, zoneId);
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+
+        // spread higher bits to the slot index
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class ZoneEntry {
+
+        private final String name;
+
+        private final int hash;
+
+        private final ZoneId zoneId;
+
+        private ZoneEntry(String name, int hash, ZoneId zoneId) {
+            this.name = name;
+            this.hash = hash;
+            this.zoneId = zoneId;
+        }
+
+    }
+
+    /**
+     * View of ASCII bytes as characters without copying
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private final ByteBuffer buffer;
+
+        private AsciiSequence(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder builder = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                builder.append(charAt(i));
+            }
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,418 @@
+package org.test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Hashed timing wheel for large number of timeouts. Current time is taken from {@link Chronometer#getTickNs()}.
+ * Scheduling and cancellation are O(1): timeouts are just enqueued and placed into the wheel buckets (doubly-linked
+ * lists) by the next {@link TimingWheel#advance()} call, which also expires all due timeouts of the passed ticks
+ * in one batch.</p>
+ *
+ * <p>Expiration precision is one tick of the wheel. Timeouts far beyond one revolution of the wheel stay in their
+ * bucket until the deadline is reached, so there is no limit on the timeout duration.</p>
+ *
+ * <p>Tasks are executed by the thread that advances the wheel and must be short. A wheel created with
+ * {@link TimingWheel#create(Chronometer, long, TimeUnit, int)} is advanced by a worker thread, or, for
+ * {@link MockChronometer} with virtual time, by the thread that changes the mocked time, so no real waiting is
+ * needed in tests.</p>
+ */
+public final class TimingWheel implements AutoCloseable {
+
+    private final Chronometer chronometer;
+
+    private final long tickDurationNs;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final long originNs;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final MockChronometer.Listener listener = chronometer -> advance();
+
+    private final Object lock = new Object();
+
+    private long processedTick;
+
+    private Timeout expiredHead;
+
+    private Timeout expiredTail;
+
+    private volatile Thread worker;
+
+    /**
+     * Constructs timing wheel that is advanced manually with {@link TimingWheel#advance()} calls
+     *
+     * @param chronometer Time source
+     * @param tickDuration Duration of one tick of the wheel
+     * @param tickUnit Time unit for tick duration
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     */
+    public TimingWheel(Chronometer chronometer, long tickDuration, TimeUnit tickUnit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size is out of range: " + wheelSize);
+        }
+
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.chronometer = chronometer;
+        this.tickDurationNs = tickUnit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        this.mask = size - 1;
+        this.originNs = chronometer.getTickNs();
+
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Creates timing wheel that advances automatically. With {@link MockChronometer} in
+     * {@link MockChronometer.Mode#FROZEN}, {@link MockChronometer.Mode#BLOCKING} or
+     * {@link MockChronometer.Mode#SIMULATED} mode the time moves only when it's changed, so the wheel is advanced
+     * on each change of the mocked time. Otherwise, including ticking and scaled modes where the mocked time flows by
+     * itself, it's advanced by a daemon worker thread once a tick. The choice is made by the mode at creation.
+     *
+     * @param chronometer Time source
+     * @param tickDuration Duration of one tick of the wheel
+     * @param tickUnit Time unit for tick duration
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     * @return Timing wheel
+     */
+    public static TimingWheel create(Chronometer chronometer, long tickDuration, TimeUnit tickUnit, int wheelSize) {
+        TimingWheel timingWheel = new TimingWheel(chronometer, tickDuration, tickUnit, wheelSize);
+
+        if (isVirtual(chronometer)) {
+            ((MockChronometer) chronometer).addListener(timingWheel.listener);
+        } else {
+            timingWheel.start();
+        }
+
+        return timingWheel;
+    }
+
+    private static boolean isVirtual(Chronometer chronometer) {
+        return chronometer instanceof MockChronometer && ((MockChronometer) chronometer).isVirtual();
+    }
+
+    /**
+     * Schedules the task
+     *
+     * @param task Task to execute when the delay is passed
+     * @param delay Delay
+     * @param delayUnit Time unit for delay
+     * @return Handle of the scheduled timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit delayUnit) {
+        long delayNs = Math.max(0, delayUnit.toNanos(delay));
+
+        Timeout timeout = new Timeout(this, task, chronometer.getTickNs() + delayNs);
+        pending.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Expires all due timeouts and executes their tasks in the current thread
+     *
+     * @return Number of expired timeouts
+     */
+    public int advance() {
+        Timeout expired;
+
+        synchronized (lock) {
+            long nowNs = chronometer.getTickNs();
+            long nowTick = tickOf(nowNs);
+
+            transferCancelled();
+            transferPending();
+
+            long fromTick = processedTick;
+            if (nowTick < fromTick || nowTick - fromTick >= wheel.length) {
+                // time has been jumped back or forward over the whole wheel
+                fromTick = nowTick - wheel.length + 1;
+            }
+
+            for (long tick = fromTick; tick <= nowTick; tick++) {
+                expireBucket(wheel[(int) (tick & mask)], nowNs);
+            }
+
+            processedTick = nowTick;
+
+            expired = expiredHead;
+            expiredHead = null;
+            expiredTail = null;
+        }
+
+        return run(expired);
+    }
+
+    private int run(Timeout expired) {
+        int count = 0;
+
+        while (expired != null) {
+            Timeout timeout = expired;
+            expired = timeout.next;
+            timeout.next = null;
+
+            try {
+                timeout.task.run();
+            } catch (Throwable e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+
+            count++;
+        }
+
+        return count;
+    }
+
+    private void expireBucket(Bucket bucket, long nowNs) {
+        Timeout timeout = bucket.head;
+
+        while (timeout != null) {
+            Timeout next = timeout.next;
+
+            if (timeout.deadlineNs - nowNs <= 0) {
+                bucket.remove(timeout);
+
+                if (timeout.expire()) {
+                    // the link is free after removal from the bucket, reuse it for the expired batch
+                    if (expiredTail == null) {
+                        expiredHead = timeout;
+                    } else {
+                        expiredTail.next = timeout;
+                    }
+                    expiredTail = timeout;
+                }
+            }
+
+            timeout = next;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state == Timeout.ST_INIT) {
+                long tick = Math.max(tickOf(timeout.deadlineNs), processedTick);
+                wheel[(int) (tick & mask)].add(timeout);
+            }
+        }
+    }
+
+    private void transferCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private long tickOf(long tickNs) {
+        return (tickNs - originNs) / tickDurationNs;
+    }
+
+    /**
+     * Starts the worker thread that advances the wheel once a tick
+     */
+    public void start() {
+        synchronized (lock) {
+            if (worker != null) {
+                throw new IllegalStateException("Timing wheel is already started");
+            }
+
+            worker = new Thread(this::work, "timing-wheel");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void work() {
+        Thread current = Thread.currentThread();
+
+        while (worker == current) {
+            advance();
+            LockSupport.parkNanos(this, tickDurationNs);
+        }
+    }
+
+    /**
+     * Stops the worker thread or detaches the wheel from {@link MockChronometer}. Pending timeouts are not
+     * expired after that.
+     */
+    @Override
+    public void close() {
+        Thread thread = worker;
+        worker = null;
+
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+
+        if (chronometer instanceof MockChronometer) {
+            ((MockChronometer) chronometer).removeListener(listener);
+        }
+    }
+
+    /**
+     * Tick duration of the wheel
+     *
+     * @param timeUnit Time unit for result
+     * @return Tick duration in selected time unit
+     */
+    public long getTickDuration(TimeUnit timeUnit) {
+        return timeUnit.convert(tickDurationNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of buckets in the wheel
+     *
+     * @return Wheel size
+     */
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimingWheel(%d x %d ns)", wheel.length, tickDurationNs);
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel timingWheel;
+
+        private final Runnable task;
+
+        private final long deadlineNs;
+
+        private volatile int state;
+
+        // links are guarded by the wheel lock
+        private Bucket bucket;
+
+        private Timeout prev;
+
+        private Timeout next;
+
+        private Timeout(TimingWheel timingWheel, Runnable task, long deadlineNs) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadlineNs = deadlineNs;
+        }
+
+        /**
+         * Cancels the timeout so its task will not be executed
+         *
+         * @return True if the timeout has been cancelled by this call
+         */
+        public boolean cancel() {
+            if (STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                timingWheel.cancelled.offer(this);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        /**
+         * Checks if the timeout has been cancelled
+         *
+         * @return True if cancelled
+         */
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        /**
+         * Checks if the timeout has been expired and its task has been executed or is being executed
+         *
+         * @return True if expired
+         */
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        /**
+         * Deadline of the timeout
+         *
+         * @return Tick time in nanoseconds
+         * @see Chronometer#getTickNs()
+         */
+        public long getDeadlineNs() {
+            return deadlineNs;
+        }
+
+        private boolean expire() {
+            return STATE.compareAndSet(this, ST_INIT, ST_EXPIRED);
+        }
+
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+    }
+
+}
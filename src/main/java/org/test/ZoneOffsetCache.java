@@ -0,0 +1,132 @@
+package org.test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Per-zone cache of the current offset together with the time window where this offset is valid, i.e. the
+ * period between the previous and the next transitions of zone rules.</p>
+ *
+ * <p>While the requested moment stays inside the cached window the offset is returned without any
+ * {@link ZoneRules} lookup. Moments outside the window (for example when {@link MockChronometer} jumps across
+ * a DST transition) just replace the cached window.</p>
+ *
+ * <p>The window also keeps the range of local times that map to its offset without ambiguity, i.e. that don't fall
+ * into a gap or an overlap of the neighbouring transitions, so local times could be converted back as well.</p>
+ */
+final class ZoneOffsetCache {
+
+    private static final ConcurrentMap<ZoneId, Window> WINDOWS = new ConcurrentHashMap<>();
+
+    private ZoneOffsetCache() {
+        // utility class
+    }
+
+    /**
+     * Returns offset of the zone at the specified moment
+     *
+     * @param zoneId Timezone
+     * @param epochSec Moment in seconds since <em>epoch</em>
+     * @return Offset
+     */
+    static ZoneOffset getOffset(ZoneId zoneId, long epochSec) {
+        Window window = WINDOWS.get(zoneId);
+
+        if (window == null || !window.contains(epochSec)) {
+            window = Window.of(zoneId, epochSec);
+            WINDOWS.put(zoneId, window);
+        }
+
+        return window.offset;
+    }
+
+    /**
+     * Returns offset of the zone at the specified moment
+     *
+     * @param zoneId Timezone
+     * @param epochMs Moment in milliseconds since <em>epoch</em>
+     * @return Offset in seconds
+     */
+    static int getOffsetSeconds(ZoneId zoneId, long epochMs) {
+        return getOffset(zoneId, Math.floorDiv(epochMs, Chronometer.MS_IN_SEC)).getTotalSeconds();
+    }
+
+    /**
+     * Returns offset of the zone for the local date-time if the cached window covers it
+     *
+     * @param zoneId Timezone
+     * @param localSec Local date-time in seconds since the local <em>epoch</em>
+     * @return Offset in seconds, or {@link Integer#MIN_VALUE} if the local date-time is outside of the cached window
+     * or is close to a transition, so it should be resolved with {@link ZoneRules}
+     */
+    static int getLocalOffsetSeconds(ZoneId zoneId, long localSec) {
+        Window window = WINDOWS.get(zoneId);
+
+        if (window == null || localSec < window.localFromSec || localSec >= window.localUntilSec) {
+            return Integer.MIN_VALUE;
+        }
+
+        return window.offset.getTotalSeconds();
+    }
+
+    private static final class Window {
+
+        private final ZoneOffset offset;
+
+        private final long fromSec;
+
+        private final long untilSec;
+
+        private final long localFromSec;
+
+        private final long localUntilSec;
+
+        private Window(ZoneOffset offset, long fromSec, long untilSec, int offsetBeforeSec, int offsetAfterSec) {
+            int offsetSec = offset.getTotalSeconds();
+
+            this.offset = offset;
+            this.fromSec = fromSec;
+            this.untilSec = untilSec;
+
+            // local times between the two transitions except their gaps and overlaps
+            this.localFromSec = fromSec != Long.MIN_VALUE
+                    ? fromSec + Math.max(offsetBeforeSec, offsetSec) : Long.MIN_VALUE;
+            this.localUntilSec = untilSec != Long.MAX_VALUE
+                    ? untilSec + Math.min(offsetSec, offsetAfterSec) : Long.MAX_VALUE;
+        }
+
+        private static Window of(ZoneId zoneId, long epochSec) {
+            ZoneRules rules = zoneId.getRules();
+
+            if (rules.isFixedOffset()) {
+                ZoneOffset offset = rules.getOffset(Instant.EPOCH);
+                return new Window(offset, Long.MIN_VALUE, Long.MAX_VALUE,
+                        offset.getTotalSeconds(), offset.getTotalSeconds());
+            }
+
+            Instant instant = Instant.ofEpochSecond(epochSec);
+
+            // the transition at exactly this moment is the previous one, but previousTransition() is exclusive
+            ZoneOffsetTransition prev = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+
+            return new Window(
+                    rules.getOffset(instant),
+                    prev != null ? prev.toEpochSecond() : Long.MIN_VALUE,
+                    next != null ? next.toEpochSecond() : Long.MAX_VALUE,
+                    prev != null ? prev.getOffsetBefore().getTotalSeconds() : 0,
+                    next != null ? next.getOffsetAfter().getTotalSeconds() : 0);
+        }
+
+        private boolean contains(long epochSec) {
+            return epochSec >= fromSec && epochSec < untilSec;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.test;
+
+import java.time.Duration;
+
+/**
+ * <p>Thread pauses that depend on the runtime. Java 21 version: sleeping takes the whole nanosecond duration and
+ * unmounts a virtual thread from its carrier, busy-wait loops are hinted to the CPU.</p>
+ */
+final class Pauses {
+
+    private Pauses() {
+    }
+
+    /**
+     * Sleeps with {@link Thread#sleep(Duration)}
+     *
+     * @param pauseNs Pause duration in nanoseconds
+     * @throws InterruptedException Thrown if the thread is interrupted
+     * @throws IllegalArgumentException Thrown if the pause is negative
+     */
+    static void sleep(long pauseNs) throws InterruptedException {
+        if (pauseNs < 0) {
+            // the same contract as Thread.sleep(long, int) of the Java 8 version
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+
+        Thread.sleep(Duration.ofNanos(pauseNs));
+    }
+
+    /**
+     * Hints a busy-wait loop with {@link Thread#onSpinWait()}
+     */
+    static void onSpinWait() {
+        Thread.onSpinWait();
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * <p>Sequence lock over a version counter: a writer makes the version odd with CAS before the change and even
+ * again after it, readers retry only if the version has been changed while they were reading. Writers are expected
+ * to hold the lock for a few plain stores only.</p>
+ *
+ * <p>Java 21 version: the version is read with acquire semantics and published with release semantics instead of
+ * full volatile access, and waiting starts with spin-wait hints before it yields the thread, which lets a virtual
+ * thread give its carrier away.</p>
+ */
+final class SequenceLock {
+
+    private static final VarHandle VERSION;
+
+    private static final int SPINS = 64;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(SequenceLock.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // odd while the state is being changed, accessed with VERSION only
+    private long version;
+
+    /**
+     * Waits for the current writer and starts reading
+     *
+     * @return Version to validate after reading
+     */
+    long beginRead() {
+        long version;
+        int spins = 0;
+        while (((version = (long) VERSION.getAcquire(this)) & 1) != 0) {
+            // a writer is changing the state right now
+            spins = pause(spins);
+        }
+        return version;
+    }
+
+    /**
+     * Checks that the state hasn't been changed since {@link SequenceLock#beginRead()}
+     *
+     * @param version Version returned by {@link SequenceLock#beginRead()}
+     * @return True if the values read are consistent
+     */
+    boolean validate(long version) {
+        // reads of the state can't be reordered after the check
+        VarHandle.acquireFence();
+        return version == (long) VERSION.getOpaque(this);
+    }
+
+    void lock() {
+        int spins = 0;
+        while (true) {
+            long version = (long) VERSION.getAcquire(this);
+            if ((version & 1) == 0 && VERSION.compareAndSet(this, version, version + 1)) {
+                return;
+            }
+
+            spins = pause(spins);
+        }
+    }
+
+    void unlock() {
+        VERSION.setRelease(this, (long) VERSION.getOpaque(this) + 1);
+    }
+
+    private static int pause(int spins) {
+        if (spins < SPINS) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+
+        Thread.yield();
+        return spins;
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+public class AnchoredChronometerTest {
+
+    private MockChronometer source;
+
+    private AnchoredChronometer chronometer;
+
+    private long startNs;
+
+    @Before
+    public void setUp() throws Exception {
+        source = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        chronometer = new AnchoredChronometer(source);
+        startNs = source.getEpochNanos();
+    }
+
+    @Test
+    public void testDerived() throws Exception {
+        Assert.assertEquals(startNs, chronometer.getEpochNanos());
+
+        source.shiftBy(0, 1_234);
+        Assert.assertEquals(startNs + 1_234, chronometer.getEpochNanos());
+        Assert.assertEquals(startNs / 1_000 + 1, chronometer.getEpochMicros());
+        Assert.assertEquals(Instant.parse("2017-03-13T02:12:30.763001234Z"), chronometer.getInstant());
+        Assert.assertEquals(source.getTimeMs(), chronometer.getTimeMs());
+
+        TimeSample sample = chronometer.getSample(new TimeSample());
+        Assert.assertEquals(source.getTimeMs(), sample.getTimeMs());
+        Assert.assertEquals(1_234, sample.getTickNs());
+    }
+
+    @Test
+    public void testSlew() throws Exception {
+        // the source wall clock is ahead of derived one by 1 ms
+        source.correctTimeBy(1, 0);
+        source.shiftBy(1, TimeUnit.SECONDS);
+
+        // re-anchored without a jump
+        Assert.assertEquals(startNs + 1_000_000_000, chronometer.getEpochNanos());
+        Assert.assertEquals(1_000_000, chronometer.getLastErrorNs());
+
+        // corrected by 500 ppm of elapsed time
+        source.shiftBy(0, 500_000_000);
+        Assert.assertEquals(startNs + 1_500_250_000, chronometer.getEpochNanos());
+
+        source.shiftBy(0, 500_000_000);
+        Assert.assertEquals(startNs + 2_000_500_000, chronometer.getEpochNanos());
+        Assert.assertEquals(500_000, chronometer.getLastErrorNs());
+
+        source.shiftBy(2, TimeUnit.SECONDS);
+        source.shiftBy(0, 1);
+        Assert.assertEquals(source.getEpochNanos(), chronometer.getEpochNanos());
+        Assert.assertEquals(0, chronometer.getStepCount());
+    }
+
+    @Test
+    public void testSlewBack() throws Exception {
+        source.correctTimeBy(-1, 0);
+        source.shiftBy(1, TimeUnit.SECONDS);
+
+        long prevNs = chronometer.getEpochNanos();
+        for (int i = 0; i < 3_000; i++) {
+            source.shiftBy(1, TimeUnit.MILLISECONDS);
+
+            long epochNs = chronometer.getEpochNanos();
+            Assert.assertTrue(epochNs > prevNs);
+            prevNs = epochNs;
+        }
+
+        Assert.assertEquals(source.getEpochNanos(), chronometer.getEpochNanos());
+    }
+
+    @Test
+    public void testStep() throws Exception {
+        source.correctTimeBy(TimeUnit.HOURS.toMillis(1), 0);
+        source.shiftBy(1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(source.getEpochNanos(), chronometer.getEpochNanos());
+        Assert.assertEquals(1, chronometer.getStepCount());
+    }
+
+    @Test
+    public void testSystem() throws Exception {
+        AnchoredChronometer system = AnchoredChronometer.create();
+
+        long prevNs = system.getEpochNanos();
+        for (int i = 0; i < 10_000; i++) {
+            long epochNs = system.getEpochNanos();
+            Assert.assertTrue(epochNs >= prevNs);
+            prevNs = epochNs;
+        }
+
+        Assert.assertEquals(System.currentTimeMillis(), system.getTimeMs(), 50);
+    }
+}
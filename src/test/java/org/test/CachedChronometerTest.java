@@ -0,0 +1,76 @@
+package org.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+public class CachedChronometerTest {
+
+    private CachedChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = CachedChronometer.create(1, TimeUnit.MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        chronometer.close();
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        long time1 = chronometer.getTimeMs();
+        long tick1 = chronometer.getTickNs();
+        Instant instant1 = chronometer.getInstant();
+
+        Thread.sleep(20);
+
+        long time2 = chronometer.getTimeMs();
+        long tick2 = chronometer.getTickNs();
+        Instant instant2 = chronometer.getInstant();
+
+        Assert.assertTrue(time2 - time1 >= 10);
+        Assert.assertTrue(tick2 - tick1 >= 10_000_000);
+        Assert.assertTrue(instant2.isAfter(instant1));
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        chronometer.close();
+        Thread.sleep(5);
+
+        long time1 = chronometer.getTimeMs();
+        long tick1 = chronometer.getTickNs();
+
+        Thread.sleep(10);
+
+        Assert.assertFalse(chronometer.isRunning());
+        Assert.assertEquals(time1, chronometer.getTimeMs());
+        Assert.assertEquals(tick1, chronometer.getTickNs());
+        Assert.assertTrue(chronometer.getDriftNs() >= 10_000_000);
+    }
+
+    @Test
+    public void testResolution() throws Exception {
+        long tick = chronometer.getTickNs();
+        while (chronometer.getTickNs() == tick) {
+            Thread.sleep(1);
+        }
+
+        Assert.assertEquals(1, chronometer.getResolution(TimeUnit.MILLISECONDS));
+        Assert.assertTrue(chronometer.getMaxDriftNs() >= 1_000_000);
+    }
+
+    @Test
+    public void testSleep() throws Exception {
+        long m = chronometer.getTickNs();
+        chronometer.sleep(100);
+        long elapsedMs = chronometer.getElapsed(m, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(Math.abs(elapsedMs - 100) < 20);
+    }
+}
@@ -0,0 +1,152 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DeadlineTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", Long.MAX_VALUE - 1_000);
+    }
+
+    @Test
+    public void testRemaining() throws Exception {
+        Deadline deadline = Deadline.after(chronometer, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(100_000_000, deadline.remainingNs());
+        Assert.assertEquals(100, deadline.remaining(TimeUnit.MILLISECONDS));
+        Assert.assertFalse(deadline.isExpired());
+
+        // across the overflow of tick values
+        chronometer.shiftBy(99_999_999, TimeUnit.NANOSECONDS);
+        Assert.assertEquals(1, deadline.remainingNs());
+        Assert.assertEquals(0, deadline.remaining(TimeUnit.MILLISECONDS));
+        Assert.assertFalse(deadline.isExpired());
+
+        chronometer.shiftBy(1, TimeUnit.NANOSECONDS);
+        Assert.assertEquals(0, deadline.remainingNs());
+        Assert.assertTrue(deadline.isExpired());
+
+        chronometer.shiftBy(1, TimeUnit.DAYS);
+        Assert.assertTrue(deadline.isExpired());
+    }
+
+    @Test
+    public void testOverflowAndJitter() throws Exception {
+        long tickNs = chronometer.getTickNs();
+
+        Assert.assertEquals(Deadline.MAX_BUDGET_NS, Deadline.infinite(chronometer).remainingNs());
+        Assert.assertEquals(Deadline.MAX_BUDGET_NS,
+                Deadline.after(chronometer, Long.MAX_VALUE, TimeUnit.DAYS).remainingNs());
+        Assert.assertEquals(0, Deadline.after(chronometer, -1, TimeUnit.SECONDS).remainingNs());
+
+        // tick time going back within the jitter keeps the infinite deadline
+        Assert.assertEquals(Deadline.MAX_BUDGET_NS,
+                Deadline.remainingNs(tickNs + Deadline.MAX_BUDGET_NS, tickNs - Chronometer.ALLOWED_TICK_JITTER_NS));
+
+        // passed so long ago that the difference has overflowed
+        Assert.assertEquals(0, Deadline.remainingNs(tickNs, tickNs + Long.MAX_VALUE + 10));
+    }
+
+    @Test
+    public void testPrimitive() throws Exception {
+        long deadline1 = Deadline.tickAfter(chronometer, 2, TimeUnit.SECONDS);
+        long deadline2 = Deadline.tickAfter(chronometer, 1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(deadline2, Deadline.min(deadline1, deadline2));
+        Assert.assertEquals(deadline2, Deadline.min(deadline2, deadline1));
+
+        chronometer.shiftBy(1500, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(Deadline.isExpired(chronometer, deadline2));
+        Assert.assertFalse(Deadline.isExpired(chronometer, deadline1));
+        Assert.assertEquals(500_000_000, Deadline.remainingNs(chronometer, deadline1));
+
+        Assert.assertEquals(Deadline.of(chronometer, deadline1), Deadline.of(chronometer, deadline1));
+        Assert.assertEquals(deadline1, Deadline.of(chronometer, deadline1).getTickNs());
+    }
+
+    @Test
+    public void testSubBudget() throws Exception {
+        Deadline deadline = Deadline.after(chronometer, 1, TimeUnit.SECONDS);
+
+        Deadline stage1 = deadline.subBudget(300, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(300, stage1.remaining(TimeUnit.MILLISECONDS));
+        Assert.assertSame(deadline, deadline.subBudget(5, TimeUnit.SECONDS));
+        Assert.assertSame(stage1, deadline.min(stage1));
+        Assert.assertSame(stage1, stage1.min(deadline));
+        Assert.assertTrue(stage1.compareTo(deadline) < 0);
+
+        chronometer.shiftBy(400, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(stage1.isExpired());
+
+        Deadline stage2 = deadline.subBudget(0.5);
+        Assert.assertEquals(300, stage2.remaining(TimeUnit.MILLISECONDS));
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertTrue(deadline.subBudget(0.5).isExpired());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubBudgetShare() throws Exception {
+        Deadline.after(chronometer, 1, TimeUnit.SECONDS).subBudget(1.5);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testCheck() throws Exception {
+        Deadline deadline = Deadline.after(chronometer, 1, TimeUnit.SECONDS);
+        deadline.check();
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        deadline.check();
+    }
+
+    @Test
+    public void testPropagation() throws Exception {
+        Deadline deadline = Deadline.after(chronometer, 1, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Assert.assertNull(Deadline.current());
+
+            AtomicReference<Deadline> seen = new AtomicReference<>();
+            Deadline.Scope scope = deadline.attach();
+            try {
+                Assert.assertSame(deadline, Deadline.current());
+
+                Deadline.propagating(executor).execute(() -> seen.set(Deadline.current()));
+                Future<Deadline> future = executor.submit(Deadline.wrap(Deadline::current));
+                Assert.assertSame(deadline, future.get());
+
+                Deadline.Scope nested = deadline.subBudget(1, TimeUnit.MILLISECONDS).attach();
+                try {
+                    Assert.assertEquals(1, Deadline.current().remaining(TimeUnit.MILLISECONDS));
+                } finally {
+                    nested.close();
+                }
+                Assert.assertSame(deadline, Deadline.current());
+            } finally {
+                scope.close();
+            }
+
+            Assert.assertSame(deadline, seen.get());
+            Assert.assertNull(Deadline.current());
+
+            // the executor thread doesn't keep the deadline after the task
+            Assert.assertNull(executor.submit(Deadline::current).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
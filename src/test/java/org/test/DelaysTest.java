@@ -0,0 +1,188 @@
+package org.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DelaysTest {
+
+    private MockChronometer chronometer;
+
+    private Delays delays;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", Long.MAX_VALUE - 1_000);
+        delays = new Delays(chronometer);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delays.close();
+    }
+
+    @Test
+    public void testDelay() throws Exception {
+        CompletableFuture<Void> f1 = delays.delay(100, TimeUnit.MILLISECONDS);
+        CompletableFuture<Void> f2 = delays.delay(1, TimeUnit.HOURS);
+
+        // across the overflow of tick values
+        chronometer.shiftBy(99, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(f1.isDone());
+
+        // completed synchronously by the thread that shifts the time
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(f1.isDone());
+        Assert.assertFalse(f2.isDone());
+
+        chronometer.sleep(1, TimeUnit.HOURS);
+        Assert.assertTrue(f2.isDone());
+
+        Assert.assertTrue(delays.delay(0, TimeUnit.SECONDS).isDone());
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+
+        delays.delay(3, TimeUnit.SECONDS).thenRun(() -> order.add(3));
+        delays.delay(1, TimeUnit.SECONDS).thenRun(() -> order.add(1));
+        delays.delay(2, TimeUnit.SECONDS).thenRun(() -> order.add(2));
+
+        chronometer.shiftBy(10, TimeUnit.SECONDS);
+        Assert.assertEquals(3, order.size());
+        Assert.assertTrue(order.contains(1) && order.contains(2) && order.contains(3));
+
+        // dependent stages chain the delays in virtual time
+        long startNs = chronometer.getTickNs();
+        CompletableFuture<Void> chain = delays.delay(1, TimeUnit.SECONDS)
+                .thenCompose(v -> delays.delay(1, TimeUnit.SECONDS));
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertFalse(chain.isDone());
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertTrue(chain.isDone());
+        Assert.assertEquals(2_000_000_000, chronometer.getElapsedNs(startNs));
+    }
+
+    @Test
+    public void testOrTimeout() throws Exception {
+        CompletableFuture<String> f1 = delays.orTimeout(new CompletableFuture<>(), 5, TimeUnit.SECONDS);
+        CompletableFuture<String> f2 = delays.orTimeout(new CompletableFuture<>(), 5, TimeUnit.SECONDS);
+
+        chronometer.shiftBy(4, TimeUnit.SECONDS);
+        Assert.assertTrue(f2.complete("a"));
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertTrue(f1.isCompletedExceptionally());
+        Assert.assertEquals("a", f2.get());
+
+        try {
+            f1.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testCompleteOnTimeout() throws Exception {
+        CompletableFuture<String> f1 = delays.completeOnTimeout(new CompletableFuture<>(), "x", 5, TimeUnit.SECONDS);
+        CompletableFuture<String> f2 = delays.completeOnTimeout(new CompletableFuture<>(), "x", 5, TimeUnit.SECONDS);
+        CompletableFuture<String> f3 = delays.completeOnTimeout(
+                CompletableFuture.completedFuture("b"), "x", 5, TimeUnit.SECONDS);
+
+        f2.complete("a");
+        chronometer.shiftBy(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals("x", f1.get());
+        Assert.assertEquals("a", f2.get());
+        Assert.assertEquals("b", f3.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        CompletableFuture<Void> future = delays.delay(1, TimeUnit.SECONDS);
+        future.thenRun(counter::incrementAndGet);
+        Assert.assertTrue(future.cancel(false));
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testDelayedExecutor() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(counter::incrementAndGet,
+                delays.delayedExecutor(1, TimeUnit.SECONDS, Runnable::run));
+
+        chronometer.shiftBy(999, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(future.isDone());
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(Integer.valueOf(1), future.get());
+    }
+
+    @Test
+    public void testZeroDelay() throws Exception {
+        // nothing is left for the wheel when the time doesn't move
+        CompletableFuture<String> f1 = delays.orTimeout(new CompletableFuture<>(), 0, TimeUnit.SECONDS);
+        CompletableFuture<String> f2 = delays.completeOnTimeout(new CompletableFuture<>(), "x", -1, TimeUnit.SECONDS);
+
+        Assert.assertTrue(f1.isCompletedExceptionally());
+        Assert.assertEquals("x", f2.getNow(null));
+
+        AtomicInteger counter = new AtomicInteger();
+        delays.delayedExecutor(0, TimeUnit.SECONDS, Runnable::run).execute(counter::incrementAndGet);
+        Assert.assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testSystem() throws Exception {
+        Assert.assertSame(Delays.system(), Delays.system());
+
+        long startNs = SystemChronometer.INSTANCE.getTickNs();
+        Delays.system().delay(20, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(SystemChronometer.INSTANCE.getElapsedNs(startNs) >= 20_000_000);
+
+        CompletableFuture<String> future =
+                Delays.system().orTimeout(new CompletableFuture<>(), 20, TimeUnit.MILLISECONDS);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testScaled() throws Exception {
+        MockChronometer scaled = MockChronometer.createScaled("2017-03-13 02:12:30.763 UTC", 0, 100);
+
+        try (Delays scaledDelays = new Delays(scaled)) {
+            // the mocked time flows without changes, one second takes 10 ms of real time
+            long startNs = scaled.getTickNs();
+            scaledDelays.delay(1, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(scaled.getElapsedNs(startNs) >= 1_000_000_000);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCloseSystem() throws Exception {
+        Delays.system().close();
+    }
+
+}
@@ -0,0 +1,169 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpiringCacheTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", Long.MAX_VALUE - 1_000);
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.expireAfterWrite(chronometer, 10, TimeUnit.SECONDS);
+
+        Assert.assertNull(cache.put("a", "1"));
+        chronometer.shiftBy(5, TimeUnit.SECONDS);
+        Assert.assertNull(cache.put("b", "2"));
+
+        // reads don't extend the lifetime, across the overflow of tick values
+        chronometer.shiftBy(4_999, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("1", cache.get("a"));
+        Assert.assertEquals("2", cache.get("b"));
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals("2", cache.get("b"));
+
+        chronometer.shiftBy(5, TimeUnit.SECONDS);
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(2, cache.getExpirationCount());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpireAfterAccess() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.expireAfterAccess(chronometer, 10, TimeUnit.SECONDS);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        for (int i = 0; i < 10; i++) {
+            chronometer.shiftBy(9, TimeUnit.SECONDS);
+            Assert.assertEquals("1", cache.get("a"));
+        }
+
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("1", cache.get("a"));
+
+        chronometer.shiftBy(10, TimeUnit.SECONDS);
+        Assert.assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testBucketedExpiry() throws Exception {
+        ExpiringCache<Integer, Integer> cache = ExpiringCache.expireAfterWrite(chronometer, 1, TimeUnit.MINUTES);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+            chronometer.shiftBy(30, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(1_000, cache.size());
+
+        // expired entries are removed in bulk by other operations without reading them
+        chronometer.shiftBy(50, TimeUnit.SECONDS);
+        cache.put(-1, -1);
+        // entries that have been written during the first 20 seconds are expired, one bucket of them may remain
+        Assert.assertTrue(cache.size() <= 400);
+        Assert.assertTrue(cache.size() > 1_000 / 3);
+
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+        cache.get(-1);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1_001, cache.getExpirationCount());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        ExpiringCache<Integer, Integer> cache =
+                new ExpiringCache<>(chronometer, ExpiringCache.Expiry.AFTER_WRITE, 1, TimeUnit.HOURS, 100);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+            chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        }
+
+        // recently read entries survive
+        for (int i = 0; i < 100; i += 10) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+
+        for (int i = 100; i < 150; i++) {
+            cache.put(i, i);
+        }
+
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(50, cache.getEvictionCount());
+        for (int i = 0; i < 100; i += 10) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+    }
+
+    @Test
+    public void testComputeIfAbsent() throws Exception {
+        ExpiringCache<String, Integer> cache = ExpiringCache.expireAfterWrite(chronometer, 1, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+
+        Assert.assertEquals(Integer.valueOf(1), cache.computeIfAbsent("a", k -> loads.incrementAndGet()));
+        Assert.assertEquals(Integer.valueOf(1), cache.computeIfAbsent("a", k -> loads.incrementAndGet()));
+
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+        Assert.assertEquals(Integer.valueOf(2), cache.computeIfAbsent("a", k -> loads.incrementAndGet()));
+        Assert.assertNull(cache.computeIfAbsent("b", k -> null));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testReplaceAndRemove() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.expireAfterWrite(chronometer, 1, TimeUnit.SECONDS);
+
+        cache.put("a", "1");
+        chronometer.shiftBy(600, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("1", cache.put("a", "2"));
+
+        // the replaced entry doesn't remove the new one when its bucket is drained
+        chronometer.shiftBy(600, TimeUnit.MILLISECONDS);
+        cache.cleanUp();
+        Assert.assertEquals("2", cache.get("a"));
+
+        Assert.assertEquals("2", cache.remove("a"));
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, cache.getExpirationCount());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        ExpiringCache<String, Object> cache = ExpiringCache.expireAfterWrite(chronometer, 1, TimeUnit.SECONDS);
+        Object value = new Object();
+        WeakReference<Object> reference = new WeakReference<>(value);
+
+        cache.put("a", value);
+        cache.clear();
+        value = null;
+
+        // the value isn't referenced by the time buckets anymore
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+        Assert.assertEquals(0, cache.size());
+
+        // the buckets still work after the clear
+        cache.put("b", "2");
+        chronometer.shiftBy(2, TimeUnit.SECONDS);
+        cache.cleanUp();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getExpirationCount());
+    }
+
+}
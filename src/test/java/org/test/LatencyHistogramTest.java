@@ -0,0 +1,134 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100_000, snapshot.getCount());
+        Assert.assertEquals(100_000_000, snapshot.getMaxNs());
+        Assert.assertEquals(50_000_500, snapshot.getMeanNs(), 0.1);
+
+        assertClose(50_000_000, snapshot.getValueAtPercentile(50));
+        assertClose(99_000_000, snapshot.getValueAtPercentile(99));
+        assertClose(99_900_000, snapshot.getValueAtPercentile(99.9));
+        assertClose(1_000, snapshot.getMinNs());
+        Assert.assertEquals(100_000_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testRandom() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.SECONDS.toNanos(10), 7);
+        Random random = new Random(42);
+
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long v = (long) Math.exp(random.nextDouble() * 22);
+            values.add(v);
+            histogram.record(v);
+        }
+
+        values.sort(Long::compare);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double p : new double[] {1, 10, 50, 90, 99, 99.9}) {
+            long expected = values.get((int) Math.ceil(p / 100 * values.size()) - 1);
+            assertClose(expected, snapshot.getValueAtPercentile(p));
+        }
+    }
+
+    @Test
+    public void testSmallValues() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(1_000, 7);
+
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(3);
+        histogram.record(1_000_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(4, snapshot.getCount());
+        Assert.assertEquals(0, snapshot.getMinNs());
+        Assert.assertEquals(0, snapshot.getValueAtPercentile(50));
+        Assert.assertEquals(3, snapshot.getValueAtPercentile(75));
+        Assert.assertEquals(1_000, snapshot.getMaxNs());
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // elapsed time that has overflowed doesn't wrap the sum
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(1_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(3, snapshot.getCount());
+        Assert.assertEquals(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_NS, snapshot.getMaxNs());
+        Assert.assertEquals((2 * LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_NS + 1_000) / 3.0,
+                snapshot.getMeanNs(), 1.0);
+    }
+
+    @Test
+    public void testSnapshotAndReset() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        MockChronometer chronometer = MockChronometer.createFrozen();
+
+        long tickNs = chronometer.getTickNs();
+        chronometer.shiftBy(15, TimeUnit.MILLISECONDS);
+        histogram.recordSince(chronometer, tickNs);
+
+        LatencyHistogram.Snapshot snapshot1 = histogram.snapshotAndReset();
+        Assert.assertEquals(1, snapshot1.getCount());
+        Assert.assertEquals(15_000_000, snapshot1.getMaxNs());
+        assertClose(15_000_000, snapshot1.getValueAtPercentile(50));
+
+        LatencyHistogram.Snapshot snapshot2 = histogram.snapshotAndReset();
+        Assert.assertEquals(0, snapshot2.getCount());
+        Assert.assertEquals(0, snapshot2.getMaxNs());
+        Assert.assertEquals(0, snapshot2.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(800_000, snapshot.getCount());
+        Assert.assertEquals(100_000, snapshot.getMaxNs());
+        Assert.assertEquals(50_000.5, snapshot.getMeanNs(), 0.001);
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assert.assertTrue(expected + " ~ " + actual, Math.abs(expected - actual) <= expected / 64 + 1);
+    }
+}
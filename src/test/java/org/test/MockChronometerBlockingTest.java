@@ -0,0 +1,137 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MockChronometerBlockingTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createBlocking("2017-03-13 02:12:30.763 UTC", 0);
+    }
+
+    @Test
+    public void testWakeUp() throws Exception {
+        List<String> log = new CopyOnWriteArrayList<>();
+        CountDownLatch latch1 = new CountDownLatch(1);
+        CountDownLatch latch2 = new CountDownLatch(1);
+
+        start(() -> {
+            chronometer.sleep(10, TimeUnit.SECONDS);
+            log.add("10s at " + chronometer.getTickNs() / 1_000_000_000);
+            latch2.countDown();
+        });
+
+        start(() -> {
+            chronometer.sleep(5_000);
+            log.add("5s at " + chronometer.getTickNs() / 1_000_000_000);
+            latch1.countDown();
+        });
+
+        awaitSleepers(2);
+
+        chronometer.shiftBy(6, TimeUnit.SECONDS);
+        Assert.assertTrue(latch1.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, chronometer.getSleeperCount());
+
+        chronometer.shiftBy(4, TimeUnit.SECONDS);
+        Assert.assertTrue(latch2.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, chronometer.getSleeperCount());
+
+        Assert.assertEquals("5s at 6", log.get(0));
+        Assert.assertEquals("10s at 10", log.get(1));
+    }
+
+    @Test
+    public void testFrozenTime() throws Exception {
+        long tickNs = chronometer.getTickNs();
+        long timeMs = chronometer.getTimeMs();
+
+        Thread.sleep(5);
+        chronometer.sleep(0);
+
+        Assert.assertEquals(tickNs, chronometer.getTickNs());
+        Assert.assertEquals(timeMs, chronometer.getTimeMs());
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Thread thread = start(() -> {
+            try {
+                chronometer.sleep(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+
+        awaitSleepers(1);
+
+        thread.interrupt();
+        thread.join(1_000);
+
+        Assert.assertTrue(interrupted.get());
+        Assert.assertEquals(0, chronometer.getSleeperCount());
+    }
+
+    @Test
+    public void testModeSwitch() throws Exception {
+        Thread thread = start(() -> chronometer.sleep(1, TimeUnit.DAYS));
+
+        awaitSleepers(1);
+
+        chronometer.setMode(MockChronometer.Mode.FROZEN);
+        thread.join(1_000);
+
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testFactories() throws Exception {
+        MockChronometer c1 = MockChronometer.createBlocking();
+        Assert.assertNotNull(c1);
+        Assert.assertEquals(MockChronometer.Mode.BLOCKING, c1.getMode());
+
+        MockChronometer c2 = MockChronometer.createBlocking("2017-04-21 14:22:12.000 Europe/Moscow", 0);
+        Assert.assertNotNull(c2);
+        Assert.assertEquals(MockChronometer.Mode.BLOCKING, c2.getMode());
+    }
+
+    private void awaitSleepers(int count) throws InterruptedException {
+        long m = System.nanoTime();
+        while (chronometer.getSleeperCount() < count) {
+            Assert.assertTrue(System.nanoTime() - m < 1_000_000_000);
+            Thread.sleep(1);
+        }
+    }
+
+    private static Thread start(Action action) {
+        Thread thread = new Thread(() -> {
+            try {
+                action.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private interface Action {
+
+        void run() throws InterruptedException;
+
+    }
+}
@@ -4,11 +4,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -88,6 +91,48 @@ public class MockChronometerFrozenTest {
         Assert.assertEquals(763_123_345, v.get(ChronoField.NANO_OF_SECOND));
     }
 
+    @Test
+    public void testEpochNanos() throws Exception {
+        chronometer.shiftTo("2017-03-13 02:12:30.763 UTC");
+        chronometer.shiftBy(123_345, TimeUnit.NANOSECONDS);
+
+        Instant instant = chronometer.getInstant();
+        long epochNs = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+
+        Assert.assertEquals(epochNs, chronometer.getEpochNanos());
+        Assert.assertEquals(epochNs / 1_000, chronometer.getEpochMicros());
+    }
+
+    @Test
+    public void testSample() throws Exception {
+        chronometer.reset("2017-03-13 02:12:30.763 UTC", 1_000);
+
+        TimeSample sample = new TimeSample();
+        Assert.assertSame(sample, chronometer.getSample(sample));
+        Assert.assertEquals(chronometer.getTimeMs(), sample.getTimeMs());
+        Assert.assertEquals(1_000, sample.getTickNs());
+
+        chronometer.shiftBy(5);
+        chronometer.getSample(sample);
+        Assert.assertEquals(chronometer.getTimeMs(), sample.getTimeMs());
+        Assert.assertEquals(5_001_000, sample.getTickNs());
+    }
+
+    @Test
+    public void testFill() throws Exception {
+        chronometer.shiftTo("2017-03-13 02:12:30.763 UTC");
+        chronometer.shiftBy(123_345, TimeUnit.NANOSECONDS);
+
+        Date date = new Date(0);
+        Assert.assertSame(date, chronometer.fillDate(date));
+        Assert.assertEquals(chronometer.getDate(), date);
+
+        Timestamp timestamp = new Timestamp(0);
+        Assert.assertSame(timestamp, chronometer.fillTimestamp(timestamp));
+        Assert.assertEquals(chronometer.getTimestamp(), timestamp);
+        Assert.assertEquals(763_123_345, timestamp.getNanos());
+    }
+
     @Test
     public void testCorrectBy() throws Exception {
         chronometer.shiftTo("2017-03-13 02:12:30.763 UTC");
@@ -0,0 +1,83 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class MockChronometerScaledTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createScaled("2017-03-13 02:12:30.763 UTC", 0, 1_000);
+
+        Assert.assertEquals(MockChronometer.Mode.SCALED, chronometer.getMode());
+        Assert.assertEquals(1_000, chronometer.getRate(), 0);
+    }
+
+    @Test
+    public void testFlow() throws Exception {
+        long time1 = chronometer.getTimeMs();
+        long realTick1 = System.nanoTime();
+
+        Thread.sleep(10);
+
+        long time2 = chronometer.getTimeMs();
+        long realTick2 = System.nanoTime();
+
+        // at least 10 real milliseconds are 10 simulated seconds
+        Assert.assertTrue(time2 - time1 >= 10_000);
+        Assert.assertTrue(time2 - time1 <= (realTick2 - realTick1) / 1_000 + 1);
+        Assert.assertEquals(chronometer.getTimeMs() - time1, chronometer.getTickNs() / 1_000_000, 1_000);
+    }
+
+    @Test
+    public void testSleep() throws Exception {
+        long tick1 = chronometer.getTickNs();
+        long realTick1 = System.nanoTime();
+
+        chronometer.sleep(5, TimeUnit.SECONDS);
+
+        long tick2 = chronometer.getTickNs();
+        long realTick2 = System.nanoTime();
+
+        Assert.assertTrue(tick2 - tick1 >= TimeUnit.SECONDS.toNanos(5));
+        Assert.assertTrue(realTick2 - realTick1 < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testSetRate() throws Exception {
+        long tick1 = chronometer.getTickNs();
+
+        chronometer.setRate(0.001);
+        long tick2 = chronometer.getTickNs();
+
+        Thread.sleep(10);
+        long tick3 = chronometer.getTickNs();
+
+        // no discontinuity at the rate change
+        Assert.assertTrue(tick2 >= tick1);
+
+        // 10 real milliseconds are about 10 simulated microseconds now
+        Assert.assertTrue(tick3 - tick2 >= 10_000);
+        Assert.assertTrue(tick3 - tick2 < TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testShift() throws Exception {
+        chronometer.setRate(1e-9);
+
+        chronometer.shiftTo("2017-03-13 03:00:00.000 UTC");
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+
+        Assert.assertEquals(MockChronometer.toEpochMillis("2017-03-13 04:00:00.000 UTC"), chronometer.getTimeMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() throws Exception {
+        chronometer.setRate(0);
+    }
+}
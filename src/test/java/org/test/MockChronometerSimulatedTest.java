@@ -0,0 +1,152 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MockChronometerSimulatedTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createSimulated("2017-03-13 00:00:00.000 UTC", 0);
+    }
+
+    @Test
+    public void testBackoff() throws Exception {
+        List<Long> attempts = Collections.synchronizedList(new ArrayList<>());
+
+        Thread thread = new Thread(() -> {
+            chronometer.register();
+            try {
+                for (int i = 0; i < 48; i++) {
+                    attempts.add(chronometer.getElapsed(0, TimeUnit.MINUTES));
+                    chronometer.sleepUninterruptibly(30, TimeUnit.MINUTES);
+                }
+            } finally {
+                chronometer.unregister();
+            }
+        });
+
+        long m = System.nanoTime();
+        thread.start();
+        thread.join(5_000);
+
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertTrue(System.nanoTime() - m < 5_000_000_000L);
+        Assert.assertEquals(48, attempts.size());
+        Assert.assertEquals(Long.valueOf(47 * 30), attempts.get(47));
+        Assert.assertEquals(1, chronometer.getElapsed(0, TimeUnit.DAYS));
+        Assert.assertEquals(MockChronometer.toEpochMillis("2017-03-14 00:00:00.000 UTC"), chronometer.getTimeMs());
+    }
+
+    @Test
+    public void testInterleaving() throws Exception {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+        Thread t1 = participant(log, "a", 7, 3);
+        Thread t2 = participant(log, "b", 11, 2);
+
+        t1.start();
+        t2.start();
+        t1.join(5_000);
+        t2.join(5_000);
+
+        Assert.assertEquals(Arrays.asList("a@7", "b@11", "a@14", "a@21", "b@22"), log);
+    }
+
+    @Test
+    public void testNoParticipants() throws Exception {
+        Thread thread = new Thread(() -> chronometer.sleepUninterruptibly(1, TimeUnit.HOURS));
+        thread.setDaemon(true);
+        thread.start();
+
+        long m = System.nanoTime();
+        while (chronometer.getSleeperCount() < 1) {
+            Assert.assertTrue(System.nanoTime() - m < 1_000_000_000);
+            Thread.sleep(1);
+        }
+
+        // not a participant - time doesn't flow by itself
+        Assert.assertEquals(0, chronometer.getTickNs());
+
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+        thread.join(1_000);
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testConcurrentAdvance() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            MockChronometer chronometer = MockChronometer.createSimulated("2017-03-13 00:00:00.000 UTC", 0);
+            CountDownLatch start = new CountDownLatch(1);
+
+            Thread sleeper = new Thread(() -> {
+                chronometer.sleepUninterruptibly(1, TimeUnit.SECONDS);
+                chronometer.unregister();
+            });
+
+            // the last participants leave at once while the sleeper is sleeping, so they see the same deadline
+            List<Thread> leaving = new ArrayList<>();
+            for (int j = 0; j < 8; j++) {
+                leaving.add(new Thread(() -> {
+                    awaitUninterruptibly(start);
+                    chronometer.unregister();
+                }));
+            }
+
+            chronometer.register(sleeper);
+            leaving.forEach(chronometer::register);
+            leaving.forEach(Thread::start);
+            sleeper.start();
+
+            long m = System.nanoTime();
+            while (chronometer.getSleeperCount() < 1) {
+                Assert.assertTrue(System.nanoTime() - m < 1_000_000_000);
+                Thread.yield();
+            }
+
+            start.countDown();
+            for (Thread thread : leaving) {
+                thread.join(5_000);
+            }
+            sleeper.join(5_000);
+            Assert.assertFalse(sleeper.isAlive());
+
+            // the time jumps to the deadline exactly once
+            Assert.assertEquals(1_000_000_000, chronometer.getTickNs());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Thread participant(List<String> log, String name, long periodMin, int count) {
+        Thread thread = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    chronometer.sleepUninterruptibly(periodMin, TimeUnit.MINUTES);
+                    log.add(name + "@" + chronometer.getElapsed(0, TimeUnit.MINUTES));
+                }
+            } finally {
+                chronometer.unregister();
+            }
+        });
+
+        chronometer.register(thread);
+        return thread;
+    }
+}
@@ -4,7 +4,11 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MockChronometerTest {
 
@@ -33,4 +37,68 @@ public class MockChronometerTest {
         Assert.assertEquals(instant2, instant1);
     }
 
+    @Test
+    public void testListener() throws Exception {
+        MockChronometer c = MockChronometer.createFrozen("2010-04-30 10:00:00.000 UTC", 0);
+
+        AtomicInteger counter = new AtomicInteger();
+        MockChronometer.Listener listener = chronometer -> counter.incrementAndGet();
+
+        c.addListener(listener);
+        c.shiftBy(1, TimeUnit.HOURS);
+        c.shiftTo("2010-05-01 10:00:00.000 UTC");
+        c.correctTimeBy(1, 0);
+        c.sleep(10);
+        Assert.assertEquals(4, counter.get());
+
+        c.removeListener(listener);
+        c.shiftBy(1, TimeUnit.HOURS);
+        Assert.assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void testConcurrentShift() throws Exception {
+        long startMs = MockChronometer.toEpochMillis("2010-04-30 10:00:00.000 UTC");
+        MockChronometer c = MockChronometer.createFrozen(startMs, 0);
+
+        int writerCount = 4;
+        int iterations = 50_000;
+
+        AtomicBoolean inconsistent = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread reader = new Thread(() -> {
+            TimeSample sample = new TimeSample();
+            while (running.get()) {
+                c.getSample(sample);
+                // both values must come from the same state
+                if (Math.floorDiv(sample.getTickNs(), Chronometer.NS_IN_MS) != sample.getTimeMs() - startMs) {
+                    inconsistent.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < writerCount; i++) {
+            writers.add(new Thread(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    c.shiftBy(0, 1_000);
+                }
+            }));
+        }
+
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        running.set(false);
+        reader.join();
+
+        Assert.assertFalse(inconsistent.get());
+        Assert.assertEquals((long) writerCount * iterations * 1_000, c.getTickNs());
+        Assert.assertEquals(startMs + writerCount * iterations / 1_000, c.getTimeMs());
+    }
+
 }
@@ -66,6 +66,18 @@ public class MockChronometerTickingTest {
         Assert.assertTrue(Duration.between(instant1, instant2).toNanos() >= 10_000_000);
     }
 
+    @Test
+    public void testSample() throws Exception {
+        chronometer.reset("2017-03-13 02:12:30.763 UTC", 0);
+
+        Thread.sleep(5);
+
+        TimeSample sample = chronometer.getSample(new TimeSample());
+        Assert.assertTrue(sample.getTimeMs() - MockChronometer.toEpochMillis("2017-03-13 02:12:30.763 UTC") >= 5);
+        Assert.assertTrue(sample.getTickNs() >= 5_000_000);
+        Assert.assertTrue(chronometer.getEpochNanos() / 1_000_000 >= sample.getTimeMs());
+    }
+
     @Test
     public void testFactories() throws Exception {
         MockChronometer c1 = MockChronometer.createTicking();
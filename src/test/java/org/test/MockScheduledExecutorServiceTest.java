@@ -0,0 +1,153 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MockScheduledExecutorServiceTest {
+
+    private MockChronometer chronometer;
+
+    private MockScheduledExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        executor = new MockScheduledExecutorService(chronometer);
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        List<String> log = new ArrayList<>();
+
+        executor.schedule(() -> log.add("c"), 30, TimeUnit.SECONDS);
+        executor.schedule(() -> log.add("a"), 10, TimeUnit.SECONDS);
+        executor.schedule(() -> log.add("b"), 20, TimeUnit.SECONDS);
+        executor.schedule(() -> log.add("d"), 40, TimeUnit.SECONDS);
+
+        chronometer.shiftBy(35, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), log);
+        Assert.assertEquals(1, executor.getQueueSize());
+    }
+
+    @Test
+    public void testImmediate() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        executor.execute(counter::incrementAndGet);
+        Assert.assertEquals(1, counter.get());
+
+        Assert.assertEquals("done", executor.submit(() -> "done").get());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        ScheduledFuture<?> future = executor.scheduleAtFixedRate(counter::incrementAndGet, 1, 1, TimeUnit.MINUTES);
+
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+        Assert.assertEquals(60, counter.get());
+        Assert.assertEquals(1, future.getDelay(TimeUnit.MINUTES));
+
+        future.cancel(false);
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+        Assert.assertEquals(60, counter.get());
+        Assert.assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void testFixedDelay() throws Exception {
+        List<Long> ticks = new ArrayList<>();
+
+        executor.scheduleWithFixedDelay(() -> {
+            ticks.add(chronometer.getTickNs());
+            chronometer.sleepUninterruptibly(1, TimeUnit.SECONDS);
+        }, 0, 10, TimeUnit.SECONDS);
+
+        // the first execution is immediate
+        Assert.assertEquals(Arrays.asList(0L), ticks);
+
+        executor.advanceBy(30, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList(0L, 11_000_000_000L, 22_000_000_000L), ticks);
+    }
+
+    @Test
+    public void testAdvanceBy() throws Exception {
+        List<Long> ticks = new ArrayList<>();
+
+        executor.scheduleAtFixedRate(() -> ticks.add(chronometer.getTickNs()), 5, 5, TimeUnit.SECONDS);
+
+        executor.advanceBy(16, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList(5_000_000_000L, 10_000_000_000L, 15_000_000_000L), ticks);
+        Assert.assertEquals(16_000_000_000L, chronometer.getTickNs());
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        executor.schedule(() -> { }, 1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, executor.shutdownNow().size());
+        Assert.assertTrue(executor.isShutdown());
+        Assert.assertTrue(executor.isTerminated());
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownRunsDelayedTasks() throws Exception {
+        AtomicInteger oneShot = new AtomicInteger();
+        AtomicInteger periodic = new AtomicInteger();
+
+        executor.schedule(oneShot::incrementAndGet, 10, TimeUnit.SECONDS);
+        ScheduledFuture<?> future = executor.scheduleAtFixedRate(periodic::incrementAndGet, 1, 1, TimeUnit.SECONDS);
+
+        executor.shutdown();
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertFalse(executor.isTerminated());
+        Assert.assertFalse(executor.awaitTermination(10, TimeUnit.MILLISECONDS));
+
+        chronometer.shiftBy(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, oneShot.get());
+        Assert.assertEquals(0, periodic.get());
+        Assert.assertTrue(executor.isTerminated());
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        Assert.assertTrue(MockScheduledExecutorService.create(chronometer, 1)
+                instanceof MockScheduledExecutorService);
+
+        ScheduledExecutorService system = MockScheduledExecutorService.create(SystemChronometer.INSTANCE, 1);
+        Assert.assertTrue(system instanceof ScheduledThreadPoolExecutor);
+        system.shutdown();
+    }
+
+    @Test
+    public void testCreateFlowing() throws Exception {
+        MockChronometer ticking = MockChronometer.createTicking("2017-03-13 02:12:30.763 UTC", 0);
+        MockChronometer scaled = MockChronometer.createScaled("2017-03-13 02:12:30.763 UTC", 0, 100);
+
+        for (MockChronometer flowing : Arrays.asList(ticking, scaled)) {
+            ScheduledExecutorService executor = MockScheduledExecutorService.create(flowing, 1);
+            Assert.assertTrue(executor instanceof MockScheduledExecutorService);
+
+            // the task is executed by the worker as nobody changes the mocked time
+            long startNs = flowing.getTickNs();
+            ScheduledFuture<Long> future = executor.schedule(flowing::getTickNs, 50, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(future.get(5, TimeUnit.SECONDS) - startNs >= 50_000_000);
+
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+}
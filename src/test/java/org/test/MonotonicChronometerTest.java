@@ -0,0 +1,86 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MonotonicChronometerTest {
+
+    @Test
+    public void testGlobal() throws Exception {
+        MockChronometer mock = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 1_000);
+        MonotonicChronometer chronometer = MonotonicChronometer.global(mock);
+
+        Assert.assertEquals(1_000, chronometer.getTickNs());
+
+        mock.shiftBy(0, 500);
+        Assert.assertEquals(1_500, chronometer.getTickNs());
+        Assert.assertEquals(0, chronometer.getCorrectionCount());
+
+        mock.shiftBy(0, -200);
+        Assert.assertEquals(1_500, chronometer.getTickNs());
+        Assert.assertEquals(1, chronometer.getCorrectionCount());
+        Assert.assertEquals(200, chronometer.getMaxCorrectionNs());
+
+        mock.shiftBy(0, 300);
+        Assert.assertEquals(1_600, chronometer.getTickNs());
+        Assert.assertEquals(1, chronometer.getCorrectionCount());
+
+        Assert.assertEquals(mock.getTimeMs(), chronometer.getTimeMs());
+        Assert.assertEquals(mock.getInstant(), chronometer.getInstant());
+    }
+
+    @Test
+    public void testPerThread() throws Exception {
+        MockChronometer mock = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 1_000);
+        MonotonicChronometer chronometer = MonotonicChronometer.perThread(mock);
+
+        mock.shiftBy(0, 500);
+        Assert.assertEquals(1_500, chronometer.getTickNs());
+
+        mock.shiftBy(0, -400);
+
+        long[] other = new long[1];
+        Thread thread = new Thread(() -> other[0] = chronometer.getTickNs());
+        thread.start();
+        thread.join();
+
+        // another thread has never seen the later value
+        Assert.assertEquals(1_100, other[0]);
+        Assert.assertEquals(1_500, chronometer.getTickNs());
+        Assert.assertEquals(1, chronometer.getCorrectionCount());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        MonotonicChronometer chronometer = MonotonicChronometer.global(SystemChronometer.INSTANCE);
+        AtomicBoolean failed = new AtomicBoolean();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                long prevNs = chronometer.getTickNs();
+                for (int i = 0; i < 100_000; i++) {
+                    long tickNs = chronometer.getTickNs();
+                    if (tickNs - prevNs < 0) {
+                        failed.set(true);
+                    }
+                    prevNs = tickNs;
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertFalse(failed.get());
+
+        // threads that lose the race for the shared value don't count it as a regression of the system time
+        Assert.assertEquals(0, chronometer.getCorrectionCount());
+    }
+}
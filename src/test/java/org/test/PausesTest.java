@@ -0,0 +1,38 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PausesTest {
+
+    @Test
+    public void testSleep() throws Exception {
+        long startNs = System.nanoTime();
+        Pauses.sleep(2_000_000);
+        Assert.assertTrue(System.nanoTime() - startNs >= 2_000_000);
+
+        startNs = System.nanoTime();
+        Pauses.sleep(1_500);
+        Pauses.sleep(0);
+        Assert.assertTrue(System.nanoTime() - startNs >= 1_500);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testInterrupted() throws Exception {
+        Thread.currentThread().interrupt();
+        Pauses.sleep(1_000_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() throws Exception {
+        Pauses.sleep(-1);
+    }
+
+    @Test
+    public void testSpinWait() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            Pauses.onSpinWait();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PreciseSleeperTest {
+
+    private SystemChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = SystemChronometer.createPrecise();
+    }
+
+    @Test
+    public void testShortPause() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            long m = chronometer.getTickNs();
+            chronometer.sleep(100, TimeUnit.MICROSECONDS);
+            Assert.assertTrue(chronometer.getElapsedNs(m) >= 100_000);
+        }
+
+        PreciseSleeper sleeper = chronometer.getSleeper();
+        Assert.assertEquals(100, sleeper.getSleepCount());
+        Assert.assertTrue(sleeper.getMaxOvershootNs() >= sleeper.getMeanOvershootNs());
+        Assert.assertTrue(sleeper.getOvershootNs() >= 0);
+
+        sleeper.resetStatistics();
+        Assert.assertEquals(0, sleeper.getSleepCount());
+        Assert.assertEquals(0, sleeper.getMaxOvershootNs());
+    }
+
+    @Test
+    public void testLongPause() throws Exception {
+        long m = chronometer.getTickNs();
+        chronometer.sleep(100);
+        long elapsedMs = chronometer.getElapsed(m, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(Math.abs(elapsedMs - 100) < 20);
+    }
+
+    @Test
+    public void testUninterruptibly() throws Exception {
+        Thread.currentThread().interrupt();
+
+        long m = chronometer.getTickNs();
+        chronometer.sleepUninterruptibly(5, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(Thread.interrupted());
+        Assert.assertTrue(chronometer.getElapsedNs(m) >= 5_000_000);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testInterrupted() throws Exception {
+        Thread.currentThread().interrupt();
+        chronometer.sleep(5, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThresholds() throws Exception {
+        new PreciseSleeper(10, 20, TimeUnit.MICROSECONDS);
+    }
+}
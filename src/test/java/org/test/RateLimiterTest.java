@@ -0,0 +1,124 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateLimiterTest {
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", Long.MAX_VALUE - 1_000);
+    }
+
+    @Test
+    public void testBurstAndRefill() throws Exception {
+        RateLimiter limiter = RateLimiter.perSecond(chronometer, 10, 3);
+
+        Assert.assertEquals(100, limiter.getInterval(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(3, limiter.getAvailablePermits());
+
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire(2));
+        Assert.assertFalse(limiter.tryAcquire());
+        Assert.assertEquals(0, limiter.getAvailablePermits());
+
+        // across the overflow of tick values
+        chronometer.shiftBy(99, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(limiter.tryAcquire());
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(1, limiter.getAvailablePermits());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+
+        chronometer.shiftBy(250, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, limiter.getAvailablePermits());
+        Assert.assertFalse(limiter.tryAcquire(3));
+        Assert.assertTrue(limiter.tryAcquire(2));
+
+        // idle time isn't accumulated beyond the burst
+        chronometer.shiftBy(1, TimeUnit.HOURS);
+        Assert.assertEquals(3, limiter.getAvailablePermits());
+        Assert.assertTrue(limiter.tryAcquire(3));
+        Assert.assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testSustainedRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(chronometer, 3, 1, TimeUnit.SECONDS, 1);
+
+        int acquired = 0;
+        for (int ms = 0; ms < 10_000; ms++) {
+            if (limiter.tryAcquire()) {
+                acquired++;
+            }
+            chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(30, acquired);
+    }
+
+    @Test
+    public void testAcquire() throws Exception {
+        RateLimiter limiter = RateLimiter.perSecond(chronometer, 10, 2);
+        long startNs = chronometer.getTickNs();
+
+        Assert.assertEquals(0, limiter.acquire());
+        Assert.assertEquals(0, limiter.acquire());
+
+        // frozen chronometer moves the time forward on sleep
+        Assert.assertEquals(100_000_000, limiter.acquire());
+        Assert.assertEquals(100_000_000, chronometer.getElapsedNs(startNs));
+
+        Assert.assertEquals(200_000_000, limiter.acquire(2));
+        Assert.assertEquals(300_000_000, chronometer.getElapsedNs(startNs));
+
+        Assert.assertFalse(limiter.tryAcquire(1, 99, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(limiter.tryAcquire(1, 100, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(400_000_000, chronometer.getElapsedNs(startNs));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPermitsAboveBurst() throws Exception {
+        RateLimiter.perSecond(chronometer, 10, 2).tryAcquire(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateOutOfRange() throws Exception {
+        new RateLimiter(chronometer, 2, 1, TimeUnit.NANOSECONDS, 1);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        RateLimiter limiter = RateLimiter.perSecond(chronometer, 1_000, 1_000);
+        AtomicInteger acquired = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    if (limiter.tryAcquire()) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // the time is frozen, so exactly the burst is granted
+        Assert.assertEquals(1_000, acquired.get());
+    }
+
+}
@@ -0,0 +1,176 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RecordingChronometerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+        MockChronometer mock = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 1_000);
+
+        List<Object> recorded = new ArrayList<>();
+
+        try (RecordingChronometer chronometer = new RecordingChronometer(mock, path, 4096)) {
+            for (int i = 0; i < 10; i++) {
+                recorded.add(chronometer.getTickNs());
+                recorded.add(chronometer.getTimeMs());
+                recorded.add(chronometer.getInstant());
+                recorded.add(chronometer.getEpochMicros());
+                recorded.add(chronometer.getEpochNanos());
+
+                mock.shiftBy(0, 1_234_567 * i);
+                mock.correctTimeBy(-i, 0);
+            }
+
+            // small deltas take few bytes
+            Assert.assertTrue(chronometer.getSize() < 600);
+            Assert.assertEquals(0, chronometer.getDroppedCount());
+        }
+
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+
+        List<Object> replayed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            replayed.add(replay.getTickNs());
+            replayed.add(replay.getTimeMs());
+            replayed.add(replay.getInstant());
+            replayed.add(replay.getEpochMicros());
+            replayed.add(replay.getEpochNanos());
+        }
+
+        Assert.assertEquals(recorded, replayed);
+        Assert.assertFalse(replay.hasRemaining());
+        Assert.assertEquals(Thread.currentThread().getId(), replay.getLastThreadId());
+    }
+
+    @Test
+    public void testDerived() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+        MockChronometer mock = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+
+        long elapsedNs;
+        try (RecordingChronometer chronometer = new RecordingChronometer(mock, path, 4096)) {
+            long startNs = chronometer.getTickNs();
+            mock.shiftBy(5, TimeUnit.MILLISECONDS);
+            elapsedNs = chronometer.getElapsedNs(startNs);
+        }
+
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+        long startNs = replay.getTickNs();
+        replay.sleep(1, TimeUnit.HOURS);
+        Assert.assertEquals(elapsedNs, replay.getElapsedNs(startNs));
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+
+        int threadCount = 4;
+        int iterations = 10_000;
+
+        try (RecordingChronometer chronometer = new RecordingChronometer(SystemChronometer.INSTANCE, path, 1 << 20)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        chronometer.getTickNs();
+                    }
+                }));
+            }
+
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Assert.assertEquals(0, chronometer.getDroppedCount());
+        }
+
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+        while (replay.hasRemaining()) {
+            replay.getTickNs();
+        }
+
+        Assert.assertEquals(threadCount * iterations, replay.getCount());
+    }
+
+    @Test
+    public void testFull() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+        MockChronometer mock = MockChronometer.createFrozen(0, 0);
+
+        try (RecordingChronometer chronometer = new RecordingChronometer(mock, path, 100)) {
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals(i, chronometer.getTickNs());
+                mock.shiftBy(0, 1);
+            }
+
+            Assert.assertEquals(100, chronometer.getSize());
+            Assert.assertTrue(chronometer.getDroppedCount() > 0);
+        }
+
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+        long expected = 0;
+        while (replay.hasRemaining()) {
+            Assert.assertEquals(expected++, replay.getTickNs());
+        }
+
+        Assert.assertTrue(expected > 20);
+    }
+
+    @Test
+    public void testUnfinishedRecord() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+        MockChronometer mock = MockChronometer.createFrozen(0, 0);
+        long offset;
+
+        try (RecordingChronometer chronometer = new RecordingChronometer(mock, path, 1024)) {
+            chronometer.getTickNs();
+            mock.shiftBy(1, TimeUnit.MILLISECONDS);
+            chronometer.getTickNs();
+            offset = chronometer.getSize();
+            mock.shiftBy(1, TimeUnit.MILLISECONDS);
+            chronometer.getTickNs();
+
+            Assert.assertTrue(chronometer.getSize() > offset);
+        }
+
+        // the process has crashed before the kind byte of the last record has become visible
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        buffer.putLong(RecordingChronometer.END_OFFSET, 0);
+        buffer.put((int) offset, (byte) 0);
+
+        ReplayingChronometer replay = new ReplayingChronometer(buffer);
+        Assert.assertEquals(0, replay.getTickNs());
+        Assert.assertEquals(1_000_000, replay.getTickNs());
+        Assert.assertFalse(replay.hasRemaining());
+    }
+
+    @Test
+    public void testInstantBeforeEpoch() throws Exception {
+        Path path = folder.newFile("chronometer.log").toPath();
+        MockChronometer mock = MockChronometer.createFrozen("1969-12-31 23:59:59.999 UTC", 0);
+
+        Instant instant;
+        try (RecordingChronometer chronometer = new RecordingChronometer(mock, path, 4096)) {
+            instant = chronometer.getInstant();
+        }
+
+        Assert.assertEquals(instant, ReplayingChronometer.open(path).getInstant());
+    }
+}
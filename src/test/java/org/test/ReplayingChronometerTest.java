@@ -0,0 +1,70 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ReplayingChronometerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = folder.newFile("chronometer.log").toPath();
+
+        try (RecordingChronometer chronometer = new RecordingChronometer(MockChronometer.createFrozen(), path, 256)) {
+            chronometer.getTickNs();
+            chronometer.getTimeMs();
+        }
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+
+        Assert.assertTrue(replay.hasRemaining());
+        replay.getTickNs();
+        replay.getTimeMs();
+        Assert.assertFalse(replay.hasRemaining());
+        Assert.assertEquals(2, replay.getCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDiverged() throws Exception {
+        ReplayingChronometer.open(path).getTimeMs();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExhausted() throws Exception {
+        ReplayingChronometer replay = ReplayingChronometer.open(path);
+        replay.getTickNs();
+        replay.getTimeMs();
+        replay.getTickNs();
+    }
+
+    @Test
+    public void testUnclosedLog() throws Exception {
+        // the size is not written into the header by a crashed process
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        buffer.putLong(8, 0);
+
+        ReplayingChronometer replay = new ReplayingChronometer(buffer);
+        replay.getTickNs();
+        replay.getTimeMs();
+        Assert.assertFalse(replay.hasRemaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLog() throws Exception {
+        new ReplayingChronometer(ByteBuffer.allocate(64));
+    }
+}
@@ -0,0 +1,95 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SequenceLockTest {
+
+    private final SequenceLock lock = new SequenceLock();
+
+    private volatile long first;
+
+    private volatile long second;
+
+    @Test
+    public void testVersion() throws Exception {
+        long version = lock.beginRead();
+        Assert.assertTrue(lock.validate(version));
+
+        lock.lock();
+        Assert.assertFalse(lock.validate(version));
+        lock.unlock();
+
+        Assert.assertFalse(lock.validate(version));
+        Assert.assertTrue(lock.validate(lock.beginRead()));
+    }
+
+    @Test
+    public void testConsistentReads() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    lock.lock();
+                    try {
+                        first = first + 1;
+                        second = second + 1;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }));
+        }
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                long version;
+                long a;
+                long b;
+                do {
+                    version = lock.beginRead();
+                    a = first;
+                    b = second;
+                } while (!lock.validate(version));
+
+                if (a != b) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+
+        reader.start();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        running.set(false);
+        reader.join();
+
+        Assert.assertEquals(0, torn.get());
+        Assert.assertEquals(200_000, first);
+        Assert.assertEquals(200_000, second);
+    }
+
+    @Test
+    public void testMultiRelease() throws Exception {
+        String location = SequenceLock.class.getProtectionDomain().getCodeSource().getLocation().getPath();
+        String version = System.getProperty("java.specification.version");
+
+        // the Java 21 version of the class is loaded only from the multi-release JAR
+        Assume.assumeTrue(location.endsWith(".jar") && !version.startsWith("1.") && Integer.parseInt(version) >= 21);
+
+        Assert.assertEquals("java.lang.invoke.VarHandle",
+                SequenceLock.class.getDeclaredField("VERSION").getType().getName());
+    }
+
+}
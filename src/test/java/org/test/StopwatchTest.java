@@ -0,0 +1,134 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class StopwatchTest {
+
+    private MockChronometer chronometer;
+
+    private Stopwatch stopwatch;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        stopwatch = new Stopwatch(chronometer);
+    }
+
+    @Test
+    public void testNested() throws Exception {
+        stopwatch.start("request");
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+
+        stopwatch.start("db");
+        chronometer.shiftBy(5, TimeUnit.MILLISECONDS);
+        stopwatch.stop();
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+
+        stopwatch.start("db");
+        chronometer.shiftBy(3, TimeUnit.MILLISECONDS);
+        stopwatch.lap("render");
+        chronometer.shiftBy(2, TimeUnit.MILLISECONDS);
+        stopwatch.stop();
+
+        Assert.assertEquals(1, stopwatch.getDepth());
+        Assert.assertEquals(12_000_000, stopwatch.getElapsedNs());
+
+        stopwatch.stop();
+
+        Assert.assertEquals(0, stopwatch.getDepth());
+
+        Assert.assertEquals(1, stopwatch.getCount("request"));
+        Assert.assertEquals(12_000_000, stopwatch.getTotalNs("request"));
+        Assert.assertEquals(2_000_000, stopwatch.getSelfNs("request"));
+
+        Assert.assertEquals(2, stopwatch.getCount("db"));
+        Assert.assertEquals(8_000_000, stopwatch.getTotalNs("db"));
+        Assert.assertEquals(8_000_000, stopwatch.getSelfNs("db"));
+
+        Assert.assertEquals(1, stopwatch.getCount("render"));
+        Assert.assertEquals(2_000_000, stopwatch.getTotalNs("render"));
+
+        List<String> phases = new ArrayList<>();
+        stopwatch.export((phase, count, totalNs, selfNs) -> phases.add(phase + "=" + count));
+        Assert.assertEquals(Arrays.asList("request=1", "db=2", "render=1"), phases);
+    }
+
+    @Test
+    public void testPhaseIds() throws Exception {
+        int parse = stopwatch.phase("parse");
+        int write = stopwatch.phase("write");
+
+        Assert.assertEquals(parse, stopwatch.phase("parse"));
+
+        for (int i = 0; i < 3; i++) {
+            stopwatch.start(parse);
+            chronometer.shiftBy(0, 100);
+            stopwatch.lap(write);
+            chronometer.shiftBy(0, 200);
+            stopwatch.stop();
+        }
+
+        Assert.assertEquals(300, stopwatch.getTotalNs("parse"));
+        Assert.assertEquals(600, stopwatch.getTotalNs("write"));
+
+        stopwatch.reset();
+        Assert.assertEquals(0, stopwatch.getCount("parse"));
+        Assert.assertEquals(parse, stopwatch.phase("parse"));
+        Assert.assertEquals("", stopwatch.toString());
+    }
+
+    @Test
+    public void testDeepNesting() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            stopwatch.start("level" + i);
+            chronometer.shiftBy(0, 10);
+        }
+
+        stopwatch.stopAll();
+
+        Assert.assertEquals(0, stopwatch.getDepth());
+        Assert.assertEquals(1_000, stopwatch.getTotalNs("level0"));
+        Assert.assertEquals(10, stopwatch.getSelfNs("level0"));
+        Assert.assertEquals(10, stopwatch.getTotalNs("level99"));
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        stopwatch.start("request");
+
+        for (int i = 0; i < 3; i++) {
+            stopwatch.start("db");
+            chronometer.shiftBy(0, Long.MAX_VALUE / 2);
+            stopwatch.stop();
+        }
+
+        stopwatch.stop();
+
+        // the sums stay at the maximum instead of wrapping to negative values
+        Assert.assertEquals(3, stopwatch.getCount("db"));
+        Assert.assertEquals(Long.MAX_VALUE, stopwatch.getTotalNs("db"));
+        Assert.assertEquals(Long.MAX_VALUE, stopwatch.getSelfNs("db"));
+        Assert.assertEquals(Long.MAX_VALUE, stopwatch.getTotalNs("request"));
+        Assert.assertEquals(0, stopwatch.getSelfNs("request"));
+    }
+
+    @Test
+    public void testCurrent() throws Exception {
+        Stopwatch s1 = Stopwatch.current(chronometer);
+        Assert.assertSame(s1, Stopwatch.current(chronometer));
+        Assert.assertNotSame(s1, Stopwatch.current(SystemChronometer.INSTANCE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStopWithoutStart() throws Exception {
+        stopwatch.stop();
+    }
+}
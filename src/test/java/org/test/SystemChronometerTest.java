@@ -34,6 +34,16 @@ public class SystemChronometerTest {
         Assert.assertTrue(elapsedNs > 5_000_000);
     }
 
+    @Test
+    public void testEpochMicros() throws Exception {
+        long timeMs1 = chronometer.getTimeMs();
+        long epochMcs = chronometer.getEpochMicros();
+        long timeMs2 = chronometer.getTimeMs();
+
+        Assert.assertTrue(epochMcs / 1_000 >= timeMs1);
+        Assert.assertTrue(epochMcs / 1_000 <= timeMs2);
+    }
+
     @Test
     public void testLocalTime() throws Exception {
         LocalTime v = chronometer.getLocalTime(ZoneId.of("America/New_York"));
@@ -0,0 +1,88 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+public class TimeFieldsTest {
+
+    private static final ZoneId[] ZONES = {
+            ZoneId.of("UTC"),
+            ZoneId.of("Europe/Berlin"),
+            ZoneId.of("America/New_York"),
+            ZoneId.of("Asia/Kolkata"),
+            ZoneId.of("Australia/Lord_Howe"),
+    };
+
+    @Test
+    public void testRandom() throws Exception {
+        Random random = new Random(42);
+
+        for (ZoneId zoneId : ZONES) {
+            TimeFields fields = new TimeFields(zoneId);
+
+            for (int i = 0; i < 10_000; i++) {
+                // from about 1700 to 2240 years
+                long timeMs = (long) ((random.nextDouble() - 0.5) * 17_000_000_000_000L);
+                assertFields(ZonedDateTime.ofInstant(Instant.ofEpochMilli(timeMs), zoneId), fields.update(timeMs));
+            }
+        }
+    }
+
+    @Test
+    public void testSameSecond() throws Exception {
+        TimeFields fields = new TimeFields(ZoneId.of("Europe/Berlin"));
+
+        long timeMs = MockChronometer.toEpochMillis("2016-02-29 23:59:59.000 Europe/Berlin");
+        for (int i = 0; i < 1_002; i++) {
+            assertFields(ZonedDateTime.ofInstant(Instant.ofEpochMilli(timeMs + i), fields.zoneId()),
+                    fields.update(timeMs + i));
+        }
+
+        Assert.assertEquals(3, fields.month());
+        Assert.assertEquals(1, fields.dayOfMonth());
+        Assert.assertEquals(61, fields.dayOfYear());
+        Assert.assertEquals(1, fields.millis());
+    }
+
+    @Test
+    public void testChronometer() throws Exception {
+        MockChronometer chronometer = MockChronometer.createFrozen("2017-03-26 01:59:59.999 Europe/Berlin", 0);
+        ZoneId zoneId = ZoneId.of("Europe/Berlin");
+
+        TimeFields fields = chronometer.fields(zoneId);
+        Assert.assertEquals(1, fields.hour());
+        Assert.assertEquals(59, fields.minute());
+        Assert.assertEquals(999, fields.millis());
+        Assert.assertEquals(3_600, fields.offsetSeconds());
+
+        chronometer.shiftBy(1);
+
+        Assert.assertSame(fields, chronometer.fields(zoneId));
+        Assert.assertEquals(3, fields.hour());
+        Assert.assertEquals(0, fields.minute());
+        Assert.assertEquals(0, fields.millis());
+        Assert.assertEquals(7_200, fields.offsetSeconds());
+        Assert.assertEquals(7, fields.dayOfWeek());
+    }
+
+    private static void assertFields(ZonedDateTime expected, TimeFields actual) {
+        String message = expected.toString();
+
+        Assert.assertEquals(message, expected.toLocalDate().toEpochDay(), actual.epochDay());
+        Assert.assertEquals(message, expected.getYear(), actual.year());
+        Assert.assertEquals(message, expected.getMonthValue(), actual.month());
+        Assert.assertEquals(message, expected.getDayOfMonth(), actual.dayOfMonth());
+        Assert.assertEquals(message, expected.getDayOfYear(), actual.dayOfYear());
+        Assert.assertEquals(message, expected.getDayOfWeek().getValue(), actual.dayOfWeek());
+        Assert.assertEquals(message, expected.getHour(), actual.hour());
+        Assert.assertEquals(message, expected.getMinute(), actual.minute());
+        Assert.assertEquals(message, expected.getSecond(), actual.second());
+        Assert.assertEquals(message, expected.getNano() / 1_000_000, actual.millis());
+        Assert.assertEquals(message, expected.getOffset().getTotalSeconds(), actual.offsetSeconds());
+    }
+}
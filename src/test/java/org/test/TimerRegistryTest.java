@@ -0,0 +1,100 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class TimerRegistryTest {
+
+    @Test
+    public void testMeasure() throws Exception {
+        MockChronometer chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        TimerRegistry registry = new TimerRegistry(chronometer);
+
+        TimerRegistry.Timer timer = registry.timer("db.select");
+        Assert.assertSame(timer, registry.timer("db.select"));
+
+        long start = timer.start();
+        chronometer.shiftBy(3, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(3_000_000, timer.stop(start));
+
+        start = timer.start();
+        chronometer.shiftBy(5, TimeUnit.MILLISECONDS);
+        timer.stop(start);
+
+        registry.timer("http.get").record(7, TimeUnit.MICROSECONDS);
+
+        Map<String, TimerRegistry.Timer.Snapshot> snapshots = registry.snapshotAndReset();
+        Assert.assertEquals(Arrays.asList("db.select", "http.get"), new ArrayList<>(snapshots.keySet()));
+
+        TimerRegistry.Timer.Snapshot snapshot = snapshots.get("db.select");
+        Assert.assertEquals(2, snapshot.getCount());
+        Assert.assertEquals(8_000_000, snapshot.getTotalNs());
+        Assert.assertEquals(5_000_000, snapshot.getMaxNs());
+        Assert.assertEquals(4_000_000, snapshot.getMeanNs(), 0.1);
+
+        Assert.assertEquals(7_000, snapshots.get("http.get").getTotalNs());
+
+        snapshot = registry.snapshot().get("db.select");
+        Assert.assertEquals(0, snapshot.getCount());
+        Assert.assertEquals(0, snapshot.getTotalNs());
+        Assert.assertEquals(0, snapshot.getMaxNs());
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        MockChronometer chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        TimerRegistry.Timer timer = new TimerRegistry(chronometer).timer("db.select");
+
+        timer.record(5, TimeUnit.MILLISECONDS);
+        timer.record(Long.MAX_VALUE);
+        timer.record(Long.MAX_VALUE, TimeUnit.DAYS);
+
+        // overflowed elapsed time doesn't wrap the total
+        TimerRegistry.Timer.Snapshot snapshot = timer.snapshot();
+        Assert.assertEquals(1, snapshot.getCount());
+        Assert.assertEquals(5_000_000, snapshot.getTotalNs());
+        Assert.assertEquals(5_000_000, snapshot.getMaxNs());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        TimerRegistry registry = new TimerRegistry(SystemChronometer.INSTANCE);
+
+        int threadCount = 8;
+        int iterations = 100_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    registry.timer("op" + (i & 3)).record(id + 1);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(4, registry.size());
+
+        long count = 0;
+        long totalNs = 0;
+        for (TimerRegistry.Timer.Snapshot snapshot : registry.snapshot().values()) {
+            count += snapshot.getCount();
+            totalNs += snapshot.getTotalNs();
+            Assert.assertEquals(threadCount, snapshot.getMaxNs());
+        }
+
+        Assert.assertEquals((long) threadCount * iterations, count);
+        Assert.assertEquals((long) iterations * threadCount * (threadCount + 1) / 2, totalNs);
+    }
+}
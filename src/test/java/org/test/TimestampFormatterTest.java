@@ -0,0 +1,129 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class TimestampFormatterTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSS");
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSXXXXX");
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+    }
+
+    @Test
+    public void testStyles() throws Exception {
+        Assert.assertEquals("2017-03-13 03:12:30.763",
+                new TimestampFormatter(chronometer, BERLIN, TimestampFormatter.Style.TIMESTAMP).format());
+        Assert.assertEquals("2017-03-13 03:12:30.763 Europe/Berlin",
+                new TimestampFormatter(chronometer, BERLIN, TimestampFormatter.Style.TIMESTAMP_ZONE).format());
+        Assert.assertEquals("2017-03-13T03:12:30.763+01:00",
+                new TimestampFormatter(chronometer, BERLIN, TimestampFormatter.Style.ISO).format());
+        Assert.assertEquals("2017-03-13T02:12:30.763Z",
+                new TimestampFormatter(chronometer, ZoneId.of("UTC"), TimestampFormatter.Style.ISO).format());
+    }
+
+    @Test
+    public void testSameSecond() throws Exception {
+        TimestampFormatter formatter = new TimestampFormatter(chronometer, BERLIN, TimestampFormatter.Style.ISO);
+        char[] target = new char[40];
+
+        Assert.assertEquals(29, formatter.format(target, 5));
+        Assert.assertEquals("2017-03-13T03:12:30.763+01:00", new String(target, 5, 29));
+
+        chronometer.shiftBy(200, TimeUnit.MILLISECONDS);
+        formatter.format(target, 5);
+        Assert.assertEquals("2017-03-13T03:12:30.963+01:00", new String(target, 5, 29));
+
+        chronometer.shiftBy(37, TimeUnit.MILLISECONDS);
+        formatter.format(target, 5);
+        Assert.assertEquals("2017-03-13T03:12:31.000+01:00", new String(target, 5, 29));
+
+        // across the transition the offset changes as well
+        chronometer.shiftTo("2017-03-26 00:59:59.999 UTC");
+        formatter.format(target, 5);
+        Assert.assertEquals("2017-03-26T01:59:59.999+01:00", new String(target, 5, 29));
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        formatter.format(target, 5);
+        Assert.assertEquals("2017-03-26T03:00:00.000+02:00", new String(target, 5, 29));
+    }
+
+    @Test
+    public void testBytes() throws Exception {
+        TimestampFormatter formatter =
+                new TimestampFormatter(chronometer, BERLIN, TimestampFormatter.Style.TIMESTAMP_ZONE);
+
+        byte[] target = new byte[50];
+        Assert.assertEquals(37, formatter.format(target, 1));
+        Assert.assertEquals("2017-03-13 03:12:30.763 Europe/Berlin",
+                new String(target, 1, 37, StandardCharsets.US_ASCII));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+        buffer.put((byte) '[');
+        formatter.format(buffer);
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        buffer.put((byte) ']');
+        formatter.format(buffer);
+        buffer.flip();
+
+        byte[] content = new byte[buffer.remaining()];
+        buffer.get(content);
+        Assert.assertEquals("[2017-03-13 03:12:30.763 Europe/Berlin]2017-03-13 03:12:30.764 Europe/Berlin",
+                new String(content, StandardCharsets.US_ASCII));
+
+        // the text is accepted by the mock chronometer
+        Assert.assertEquals(chronometer.getTimeMs(), MockChronometer.toEpochMillis(formatter.format()));
+    }
+
+    @Test
+    public void testSameAsFormatter() throws Exception {
+        Random random = new Random(42);
+        ZoneId[] zones = {ZoneId.of("UTC"), BERLIN, ZoneId.of("America/New_York"), ZoneId.of("Asia/Kolkata")};
+
+        TimestampFormatter[] timestamps = new TimestampFormatter[zones.length];
+        TimestampFormatter[] isos = new TimestampFormatter[zones.length];
+        for (int i = 0; i < zones.length; i++) {
+            timestamps[i] = new TimestampFormatter(chronometer, zones[i], TimestampFormatter.Style.TIMESTAMP);
+            isos[i] = new TimestampFormatter(chronometer, zones[i], TimestampFormatter.Style.ISO);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            // years from -2000 to 12000 with many moments in the same second
+            long timeMs = i % 16 == 0
+                    ? (long) (random.nextDouble() * 441_000_000_000_000L) - 125_000_000_000_000L
+                    : chronometer.getTimeMs() + random.nextInt(1_000);
+            chronometer.shiftTo(timeMs);
+
+            int zone = i % zones.length;
+            ZoneId zoneId = zones[zone];
+            Instant instant = Instant.ofEpochMilli(timeMs);
+
+            builder.setLength(0);
+            timestamps[zone].format(builder);
+            Assert.assertEquals(TIMESTAMP.format(instant.atZone(zoneId)), builder.toString());
+
+            builder.setLength(0);
+            isos[zone].format(timeMs, builder);
+            Assert.assertEquals(ISO.format(instant.atZone(zoneId)), builder.toString());
+        }
+    }
+
+}
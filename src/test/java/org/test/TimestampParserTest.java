@@ -0,0 +1,157 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TimestampParserTest {
+
+    private static final String[] ZONES = {
+        "UTC", "GMT", "Z", "+03:00", "UTC-05:30", "Europe/Berlin", "Europe/Moscow", "America/New_York",
+        "Australia/Lord_Howe", "Pacific/Apia", "MSK", "PST"
+    };
+
+    private static final DateTimeFormatter LOCAL_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSS");
+
+    @Test
+    public void testParse() throws Exception {
+        Assert.assertEquals(1489371150763L, TimestampParser.parse("2017-03-13 02:12:30.763 UTC"));
+        Assert.assertEquals(1489371150763L - 3 * 3_600_000, TimestampParser.parse("2017-03-13 02:12:30.763 MSK"));
+        Assert.assertEquals(0L, TimestampParser.parse("1970-01-01 00:00:00.000 Z"));
+        Assert.assertEquals(-1L, TimestampParser.parse("1969-12-31 23:59:59.999 GMT"));
+    }
+
+    @Test
+    public void testSameAsFormatter() throws Exception {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            String moment = String.format("%04d-%02d-%02d %02d:%02d:%02d.%03d %s",
+                    random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000),
+                    ZONES[random.nextInt(ZONES.length)]);
+
+            // twice to go through both the slow and the cached paths
+            Assert.assertEquals(moment, expected(moment), TimestampParser.parse(moment));
+            Assert.assertEquals(moment, expected(moment), TimestampParser.parse(moment));
+        }
+    }
+
+    @Test
+    public void testTransitions() throws Exception {
+        String[] moments = {
+            // gap is shifted forward, overlap takes the earlier offset
+            "2017-03-12 01:59:59.999 America/New_York",
+            "2017-03-12 02:30:00.000 America/New_York",
+            "2017-03-12 03:00:00.000 America/New_York",
+            "2017-11-05 00:59:59.999 America/New_York",
+            "2017-11-05 01:30:00.000 America/New_York",
+            "2017-11-05 02:00:00.000 America/New_York",
+            "2017-03-26 02:30:00.000 Europe/Berlin",
+            "2017-10-29 02:30:00.000 Europe/Berlin",
+            "2011-12-30 12:00:00.000 Pacific/Apia",
+            "2017-04-02 01:45:00.000 Australia/Lord_Howe",
+        };
+
+        for (String moment : moments) {
+            Assert.assertEquals(moment, expected(moment), TimestampParser.parse(moment));
+            Assert.assertEquals(moment, expected(moment), TimestampParser.parse(moment));
+        }
+
+        // every minute around the transitions after the windows are cached
+        long startSec = TimestampParser.parse("2017-11-04 22:00:00.000 UTC") / 1_000;
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(startSec + minute * 60L, 0, ZoneOffset.UTC);
+            String moment = local.format(LOCAL_FORMATTER) + " America/New_York";
+            Assert.assertEquals(moment, expected(moment), TimestampParser.parse(moment));
+        }
+    }
+
+    @Test
+    public void testLeapDays() throws Exception {
+        Assert.assertEquals(1456747200000L, TimestampParser.parse("2016-02-29 12:00:00.000 UTC"));
+        Assert.assertEquals(951825600000L, TimestampParser.parse("2000-02-29 12:00:00.000 UTC"));
+        assertInvalid("2017-02-29 12:00:00.000 UTC");
+        assertInvalid("1900-02-29 12:00:00.000 UTC");
+        assertInvalid("2017-04-31 12:00:00.000 UTC");
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        assertInvalid("2017-03-13 02:12:30.763");
+        assertInvalid("2017-03-13 02:12:30 UTC");
+        assertInvalid("2017-03-13 24:00:00.000 UTC");
+        assertInvalid("2017-03-13 23:59:60.000 UTC");
+        assertInvalid("2017-13-13 02:12:30.763 UTC");
+        assertInvalid("2017-00-13 02:12:30.763 UTC");
+        assertInvalid("2017-03-13 02:12:30.763 utc");
+        assertInvalid("2017-03-13 02:12:30.763  UTC");
+        assertInvalid("2017-03-13 02:12:30.7631 UTC");
+        assertInvalid("12017-03-13 02:12:30.763 UTC");
+        assertInvalid("2017-03-13T02:12:30.763 UTC");
+        assertInvalid("2017-03-13 02:12:30.763 GMT+3");
+        assertInvalid("");
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        String text = "at 2017-03-13 02:12:30.763 UTC!";
+        Assert.assertEquals(1489371150763L, TimestampParser.parse(text, 3, text.length() - 1));
+    }
+
+    @Test
+    public void testParseLines() throws Exception {
+        String text = "2017-03-13 02:12:30.763 UTC\r\n\n2017-03-13 02:12:30.764 Europe/Berlin\n  \n"
+                + "2017-03-13 02:12:30.765 UTC";
+
+        List<Long> values = new ArrayList<>();
+        Assert.assertEquals(3, TimestampParser.parseLines(text, values::add));
+        Assert.assertEquals(3, values.size());
+        Assert.assertEquals(1489371150763L, (long) values.get(0));
+        Assert.assertEquals(1489371150764L - 3_600_000, (long) values.get(1));
+        Assert.assertEquals(1489371150765L, (long) values.get(2));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(200);
+        buffer.put(new byte[] {'#'});
+        buffer.put(text.getBytes(StandardCharsets.US_ASCII));
+        buffer.flip();
+        buffer.position(1);
+
+        List<Long> bufferValues = new ArrayList<>();
+        Assert.assertEquals(3, TimestampParser.parseLines(buffer, bufferValues::add));
+        Assert.assertEquals(values, bufferValues);
+        Assert.assertEquals(1, buffer.position());
+
+        Assert.assertEquals(1489371150763L, TimestampParser.parse(buffer, 1, 28));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testParseLinesInvalid() throws Exception {
+        TimestampParser.parseLines(ByteBuffer.wrap("2017-03-13 02:12:30 UTC\n".getBytes(StandardCharsets.US_ASCII)),
+                value -> { });
+    }
+
+    private static long expected(String moment) {
+        return ZonedDateTime.parse(moment, MockChronometer.TIMESTAMP_FORMATTER).toInstant().toEpochMilli();
+    }
+
+    private static void assertInvalid(String moment) {
+        try {
+            TimestampParser.parse(moment);
+            Assert.fail("Parsed: " + moment);
+        } catch (DateTimeParseException e) {
+            Assert.assertEquals(moment, e.getParsedString());
+        }
+    }
+
+}
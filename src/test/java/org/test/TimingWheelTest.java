@@ -0,0 +1,115 @@
+package org.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimingWheelTest {
+
+    private MockChronometer chronometer;
+
+    private TimingWheel timingWheel;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-13 02:12:30.763 UTC", 0);
+        timingWheel = TimingWheel.create(chronometer, 1, TimeUnit.MILLISECONDS, 100);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        timingWheel.close();
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        TimingWheel.Timeout t1 = timingWheel.schedule(counter::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout t2 = timingWheel.schedule(counter::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout t3 = timingWheel.schedule(counter::incrementAndGet, 5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(128, timingWheel.getWheelSize());
+
+        chronometer.shiftBy(9, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, counter.get());
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(1, counter.get());
+        Assert.assertTrue(t1.isExpired());
+
+        Assert.assertTrue(t2.cancel());
+        Assert.assertFalse(t2.cancel());
+        Assert.assertTrue(t2.isCancelled());
+
+        chronometer.shiftBy(4_989, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(1, counter.get());
+        Assert.assertFalse(t3.isExpired());
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, counter.get());
+        Assert.assertTrue(t3.isExpired());
+        Assert.assertFalse(t3.cancel());
+    }
+
+    @Test
+    public void testMany() throws Exception {
+        Random random = new Random(42);
+        AtomicInteger counter = new AtomicInteger();
+        AtomicLong early = new AtomicLong();
+
+        for (int i = 0; i < 100_000; i++) {
+            long deadlineNs = chronometer.getTickNs() + TimeUnit.MILLISECONDS.toNanos(random.nextInt(1_000));
+
+            timingWheel.schedule(() -> {
+                counter.incrementAndGet();
+                if (chronometer.getTickNs() < deadlineNs) {
+                    early.incrementAndGet();
+                }
+            }, deadlineNs - chronometer.getTickNs(), TimeUnit.NANOSECONDS);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            chronometer.shiftBy(random.nextInt(20), TimeUnit.MILLISECONDS);
+        }
+        chronometer.shiftBy(1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(100_000, counter.get());
+        Assert.assertEquals(0, early.get());
+    }
+
+    @Test
+    public void testJump() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        timingWheel.schedule(counter::incrementAndGet, 1, TimeUnit.HOURS);
+        timingWheel.schedule(counter::incrementAndGet, 2, TimeUnit.HOURS);
+
+        chronometer.shiftTo("2017-03-13 03:30:00.000 UTC");
+        Assert.assertEquals(1, counter.get());
+
+        chronometer.shiftBy(1, TimeUnit.DAYS);
+        Assert.assertEquals(2, counter.get());
+    }
+
+    @Test
+    public void testSystem() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        try (TimingWheel systemWheel = TimingWheel.create(SystemChronometer.INSTANCE, 1, TimeUnit.MILLISECONDS, 64)) {
+            long m = SystemChronometer.INSTANCE.getTickNs();
+
+            systemWheel.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+
+            Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+            Assert.assertTrue(SystemChronometer.INSTANCE.getElapsedNs(m) >= 20_000_000);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+public class ZoneOffsetCacheTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    private MockChronometer chronometer;
+
+    @Before
+    public void setUp() throws Exception {
+        chronometer = MockChronometer.createFrozen("2017-03-26 01:59:59.999 Europe/Berlin", 0);
+    }
+
+    @Test
+    public void testSpringForward() throws Exception {
+        Assert.assertEquals(ZoneOffset.ofHours(1), chronometer.getZoneOffset(BERLIN));
+        Assert.assertEquals(LocalTime.of(1, 59, 59, 999_000_000), chronometer.getLocalTime(BERLIN));
+
+        chronometer.shiftBy(1);
+
+        Assert.assertEquals(ZoneOffset.ofHours(2), chronometer.getZoneOffset(BERLIN));
+        Assert.assertEquals(LocalTime.of(3, 0), chronometer.getLocalTime(BERLIN));
+        Assert.assertEquals(LocalDateTime.of(2017, 3, 26, 3, 0), chronometer.getLocalDateTime(BERLIN));
+    }
+
+    @Test
+    public void testJumpBack() throws Exception {
+        chronometer.shiftTo("2017-10-29 02:30:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(1), chronometer.getZoneOffset(BERLIN));
+
+        chronometer.shiftTo("2017-03-26 00:00:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(1), chronometer.getZoneOffset(BERLIN));
+
+        chronometer.shiftTo("2017-07-01 00:00:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(2), chronometer.getZoneOffset(BERLIN));
+        Assert.assertEquals(
+                OffsetDateTime.of(2017, 7, 1, 2, 0, 0, 0, ZoneOffset.ofHours(2)),
+                chronometer.getOffsetDateTime(BERLIN));
+    }
+
+    @Test
+    public void testTransitionMoment() throws Exception {
+        chronometer.shiftTo("2017-03-26 01:00:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(2), chronometer.getZoneOffset(BERLIN));
+
+        chronometer.shiftTo("2017-03-26 00:59:59.999 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(1), chronometer.getZoneOffset(BERLIN));
+
+        chronometer.shiftTo("2017-03-26 01:00:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(2), chronometer.getZoneOffset(BERLIN));
+
+        chronometer.shiftTo("2017-01-01 00:00:00.000 UTC");
+        Assert.assertEquals(ZoneOffset.ofHours(1), chronometer.getZoneOffset(BERLIN));
+    }
+
+    @Test
+    public void testLocalDay() throws Exception {
+        chronometer.shiftTo("2017-12-31 22:59:59.999 UTC");
+
+        Assert.assertEquals(LocalDate.of(2017, 12, 31), chronometer.getLocalDate(BERLIN));
+        Assert.assertEquals(LocalDate.of(2017, 12, 31).toEpochDay(), chronometer.getLocalEpochDay(BERLIN));
+
+        chronometer.shiftBy(1, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(LocalDate.of(2018, 1, 1), chronometer.getLocalDate(BERLIN));
+        Assert.assertEquals(LocalDate.of(2018, 1, 1).toEpochDay(), chronometer.getLocalEpochDay(BERLIN));
+        Assert.assertEquals(LocalDate.of(2018, 1, 1).toEpochDay() * 86_400_000L,
+                chronometer.getLocalEpochMs(BERLIN));
+    }
+
+    @Test
+    public void testFixedOffset() throws Exception {
+        chronometer.shiftTo("1960-01-01 10:00:00.000 UTC");
+
+        Assert.assertEquals(LocalDateTime.of(1960, 1, 1, 7, 0), chronometer.getLocalDateTime(ZoneOffset.ofHours(-3)));
+        Assert.assertEquals(LocalDate.of(1960, 1, 1), chronometer.getLocalDate(ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void testSystem() throws Exception {
+        ZoneId zoneId = ZoneId.of("America/New_York");
+
+        LocalDateTime before = LocalDateTime.now(zoneId);
+        LocalDateTime v = SystemChronometer.INSTANCE.getLocalDateTime(zoneId);
+        LocalDateTime after = LocalDateTime.now(zoneId);
+
+        Assert.assertFalse(v.isBefore(before));
+        Assert.assertFalse(v.isAfter(after));
+    }
+}